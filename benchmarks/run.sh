@@ -0,0 +1,16 @@
+#!/bin/sh
+# Сборка и запуск бенчмарков JMH. Результаты сохраняются в benchmarks/results/<коммит>.json,
+# чтобы запуски на разных коммитах можно было сравнить. Аргументы передаются JMH, например:
+#   benchmarks/run.sh UserBenchmark -p passwordLength=8
+set -e
+cd "$(dirname "$0")/.."
+
+mvn -B -q package
+
+commit=$(git rev-parse --short HEAD)
+if ! git diff --quiet HEAD -- src; then
+    commit="$commit-dirty"
+fi
+mkdir -p benchmarks/results
+java -jar benchmarks/target/benchmarks.jar -rf json -rff "benchmarks/results/$commit.json" "$@"
+echo "Результаты: benchmarks/results/$commit.json"
@@ -0,0 +1,31 @@
+package deepsecure.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// PasswordStrengthAnalyzer.analyzePassword в зависимости от длины пароля.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnalyzerBenchmark {
+    @Param({"8", "32", "128"})
+    int passwordLength;
+
+    Object analyzer;
+    String password;
+
+    @Setup
+    public void setUp() throws Throwable {
+        analyzer = (Object) AppBridge.NEW_ANALYZER.invokeExact();
+        password = BenchData.password(passwordLength);
+    }
+
+    @Benchmark
+    public String analyzePassword() throws Throwable {
+        return (String) AppBridge.ANALYZE_PASSWORD.invokeExact(analyzer, password, 1000.0, 10, 5.0);
+    }
+}
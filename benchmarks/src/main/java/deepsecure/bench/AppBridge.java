@@ -0,0 +1,115 @@
+package deepsecure.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+
+// Доступ к классам приложения из бенчмарков. Классы приложения лежат в пакете по умолчанию,
+// который нельзя импортировать, а JMH не допускает бенчмарки в пакете по умолчанию. Поэтому
+// вызовы идут через MethodHandle в static final полях - JIT сворачивает их в прямые вызовы.
+final class AppBridge {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    static final MethodHandle NEW_USER = constructor("User", String.class, String.class);
+    static final MethodHandle USER_LOGIN = method("User", "login", boolean.class, String.class);
+    static final MethodHandle USER_IS_PASSWORD_VALID = method("User", "isPasswordValid", boolean.class, String.class);
+    static final MethodHandle USER_SET_PASSWORD = method("User", "setPassword", void.class, String.class);
+    static final MethodHandle USER_SET_RESTRICTIONS = method("User", "setPasswordRestrictionsEnabled", void.class, boolean.class);
+
+    static final MethodHandle NEW_AUTH_SYSTEM = constructor("AuthenticationSystem", String.class);
+    static final MethodHandle AUTH_FIND_USER = method("AuthenticationSystem", "findUser", Object.class, String.class);
+    static final MethodHandle AUTH_LOAD_USERS = method("AuthenticationSystem", "loadUsers", Object.class);
+    static final MethodHandle AUTH_SAVE_USERS = method("AuthenticationSystem", "saveUsers", void.class);
+
+    static final MethodHandle NEW_ANALYZER = constructor("PasswordStrengthAnalyzer");
+    static final MethodHandle ANALYZE_PASSWORD = method("PasswordStrengthAnalyzer", "analyzePassword",
+            String.class, String.class, double.class, int.class, double.class);
+
+    static final MethodHandle NEW_CRACKER = constructor("PasswordCracker", cls("AuthenticationSystem"), Path.class, Path.class);
+    static final MethodHandle CONVERT_RUSSIAN_TO_LATIN = staticMethod("PasswordCracker", "convertRussianToLatin",
+            String.class, String.class);
+    static final MethodHandle INCREMENT_CHARS = method("PasswordCracker", "incrementChars", boolean.class, char[].class);
+    static final MethodHandle DICTIONARY_ATTACK = method("PasswordCracker", "dictionaryAttack", String.class, String.class);
+    static final MethodHandle BRUTE_FORCE_ATTACK = method("PasswordCracker", "bruteForceAttack",
+            String.class, String.class, int.class);
+    static final MethodHandle COMBINED_ATTACK = method("PasswordCracker", "combinedAttack",
+            String.class, String.class, int.class);
+    static final MethodHandle CRACKER_SCHEDULER = getter("PasswordCracker", "scheduler");
+    static final MethodHandle SCHEDULER_HISTORY = getter("AttackScheduler", "history");
+
+    private AppBridge() {
+    }
+
+    private static Class<?> cls(String name) {
+        try {
+            return Class.forName(name);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Класс приложения не найден: " + name, e);
+        }
+    }
+
+    // Конструктор, приведенный к типу (параметры...) -> Object.
+    private static MethodHandle constructor(String className, Class<?>... parameters) {
+        try {
+            Constructor<?> constructor = cls(className).getDeclaredConstructor(parameters);
+            constructor.setAccessible(true);
+            MethodHandle handle = LOOKUP.unreflectConstructor(constructor);
+            return handle.asType(erased(handle.type(), Object.class, false));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Конструктор не найден: " + className, e);
+        }
+    }
+
+    // Метод экземпляра, приведенный к типу (Object, параметры...) -> результат.
+    private static MethodHandle method(String className, String name, Class<?> returnType, Class<?>... parameters) {
+        try {
+            Method method = cls(className).getDeclaredMethod(name, parameters);
+            method.setAccessible(true);
+            MethodHandle handle = LOOKUP.unreflect(method);
+            return handle.asType(erased(handle.type(), returnType, true));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Метод не найден: " + className + "." + name, e);
+        }
+    }
+
+    // Статический метод с типом (параметры...) -> результат.
+    private static MethodHandle staticMethod(String className, String name, Class<?> returnType, Class<?>... parameters) {
+        try {
+            Method method = cls(className).getDeclaredMethod(name, parameters);
+            method.setAccessible(true);
+            return LOOKUP.unreflect(method);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Метод не найден: " + className + "." + name, e);
+        }
+    }
+
+    // Чтение поля экземпляра с типом (Object) -> Object.
+    private static MethodHandle getter(String className, String name) {
+        try {
+            Field field = cls(className).getDeclaredField(name);
+            field.setAccessible(true);
+            return LOOKUP.unreflectGetter(field).asType(MethodType.methodType(Object.class, Object.class));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Поле не найдено: " + className + "." + name, e);
+        }
+    }
+
+    // Заменяет типы классов приложения на Object, чтобы вызывать handle через invokeExact.
+    private static MethodType erased(MethodType type, Class<?> returnType, boolean instance) {
+        Class<?>[] parameters = type.parameterArray();
+        for (int i = 0; i < parameters.length; i++) {
+            if (isAppClass(parameters[i]) || (instance && i == 0)) {
+                parameters[i] = Object.class;
+            }
+        }
+        return MethodType.methodType(isAppClass(returnType) ? Object.class : returnType, parameters);
+    }
+
+    private static boolean isAppClass(Class<?> type) {
+        return !type.isPrimitive() && !type.isArray() && type.getPackageName().isEmpty();
+    }
+}
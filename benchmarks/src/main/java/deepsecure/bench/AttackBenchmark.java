@@ -0,0 +1,109 @@
+package deepsecure.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Атаки PasswordCracker целиком: словарь в зависимости от размера словаря, полный перебор - от длины
+// пароля (пароль "zz...z" - худший случай для своей длины), комбинированный метод - от обоих.
+// У каждого бенчмарка свое состояние, чтобы не перебирать параметры, которые он не использует.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AttackBenchmark {
+
+    // Пользователи и словарь во временном каталоге и подборщик для них.
+    abstract static class Attack {
+        Path directory;
+        Object cracker;
+        Object admin;
+
+        void open(int dictionarySize) throws Throwable {
+            directory = BenchData.createTempDirectory();
+            Path usersFile = BenchData.writeUsers(directory, 10);
+            Path dictionaryFile = BenchData.writeDictionary(directory, dictionarySize);
+            Object authSystem = (Object) AppBridge.NEW_AUTH_SYSTEM.invokeExact(usersFile.toString());
+            cracker = (Object) AppBridge.NEW_CRACKER.invokeExact(authSystem, dictionaryFile, directory.resolve("russian_dictionary.cache"));
+            admin = (Object) AppBridge.AUTH_FIND_USER.invokeExact(authSystem, "admin");
+            AppBridge.USER_SET_RESTRICTIONS.invokeExact(admin, false);
+        }
+
+        @TearDown
+        public void tearDown() {
+            BenchData.delete(directory);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class DictionaryState extends Attack {
+        @Param({"1000", "100000"})
+        int dictionarySize;
+
+        @Setup
+        public void setUp() throws Throwable {
+            open(dictionarySize);
+            AppBridge.USER_SET_PASSWORD.invokeExact(admin, "not-in-dictionary");
+        }
+    }
+
+    // Полный перебор словарь не использует, поэтому его размер не меняется.
+    @State(Scope.Benchmark)
+    public static class BruteForceState extends Attack {
+        @Param({"3", "4"})
+        int bruteForceLength;
+
+        @Setup
+        public void setUp() throws Throwable {
+            open(1000);
+            AppBridge.USER_SET_PASSWORD.invokeExact(admin, "z".repeat(bruteForceLength));
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class CombinedState extends Attack {
+        @Param({"1000", "100000"})
+        int dictionarySize;
+
+        @Param({"3", "4"})
+        int bruteForceLength;
+
+        Map<?, ?> history;
+
+        @Setup
+        public void setUp() throws Throwable {
+            open(dictionarySize);
+            AppBridge.USER_SET_PASSWORD.invokeExact(admin, "z".repeat(bruteForceLength));
+            Object scheduler = (Object) AppBridge.CRACKER_SCHEDULER.invokeExact(cracker);
+            history = (Map<?, ?>) (Object) AppBridge.SCHEDULER_HISTORY.invokeExact(scheduler);
+        }
+
+        // Планировщик учится на прошлых запусках и смещает доли стратегий. Каждый вызов начинается
+        // с пустой истории, иначе время зависело бы от числа выполненных итераций.
+        @Setup(Level.Invocation)
+        public void resetHistory() {
+            synchronized (history) {
+                history.clear();
+            }
+        }
+    }
+
+    // Пароля нет в словаре: проверяется весь словарь.
+    @Benchmark
+    public String dictionaryAttack(DictionaryState state) throws Throwable {
+        return (String) AppBridge.DICTIONARY_ATTACK.invokeExact(state.cracker, "admin");
+    }
+
+    @Benchmark
+    public String bruteForceAttack(BruteForceState state) throws Throwable {
+        return (String) AppBridge.BRUTE_FORCE_ATTACK.invokeExact(state.cracker, "admin", state.bruteForceLength);
+    }
+
+    @Benchmark
+    public String combinedAttack(CombinedState state) throws Throwable {
+        return (String) AppBridge.COMBINED_ATTACK.invokeExact(state.cracker, "admin", state.bruteForceLength);
+    }
+}
@@ -0,0 +1,51 @@
+package deepsecure.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// AuthenticationSystem.findUser, loadUsers и saveUsers в зависимости от числа пользователей.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthenticationBenchmark {
+    @Param({"10", "1000", "100000"})
+    int userCount;
+
+    Path directory;
+    Object authSystem;
+    String lastUser;
+
+    @Setup
+    public void setUp() throws Throwable {
+        directory = BenchData.createTempDirectory();
+        Path usersFile = BenchData.writeUsers(directory, userCount);
+        authSystem = (Object) AppBridge.NEW_AUTH_SYSTEM.invokeExact(usersFile.toString());
+        lastUser = "user" + (userCount - 1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchData.delete(directory);
+    }
+
+    // Худший случай линейного поиска - последний пользователь в списке.
+    @Benchmark
+    public Object findUser() throws Throwable {
+        return (Object) AppBridge.AUTH_FIND_USER.invokeExact(authSystem, lastUser);
+    }
+
+    @Benchmark
+    public Object loadUsers() throws Throwable {
+        return (Object) AppBridge.AUTH_LOAD_USERS.invokeExact(authSystem);
+    }
+
+    @Benchmark
+    public void saveUsers() throws Throwable {
+        AppBridge.AUTH_SAVE_USERS.invokeExact(authSystem);
+    }
+}
@@ -0,0 +1,81 @@
+package deepsecure.bench;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+// Генерация тестовых данных заданного размера во временном каталоге.
+final class BenchData {
+    private static final String RUSSIAN = "абвгдеёжзийклмнопрстуфхцчшщъыьэюя";
+
+    private BenchData() {
+    }
+
+    static Path createTempDirectory() {
+        try {
+            return Files.createTempDirectory("deep-secure-bench");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Файл пользователей в формате users.txt: admin и userCount - 1 обычных пользователей.
+    static Path writeUsers(Path directory, int userCount) {
+        List<String> lines = new ArrayList<>(userCount);
+        lines.add("admin,admin1111,false,false");
+        for (int i = 1; i < userCount; i++) {
+            lines.add("user" + i + ",password" + i + ",false,true");
+        }
+        return write(directory.resolve("users.txt"), lines);
+    }
+
+    // Словарь из wordCount различных русских слов длиной от 4 до 10 символов.
+    static Path writeDictionary(Path directory, int wordCount) {
+        Random random = new Random(42);
+        List<String> words = new ArrayList<>(wordCount);
+        for (int i = 0; i < wordCount; i++) {
+            words.add(russianWord(random, 4 + random.nextInt(7)) + i % 10);
+        }
+        return write(directory.resolve("russian_dictionary.txt"), words);
+    }
+
+    static String russianWord(Random random, int length) {
+        StringBuilder word = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            word.append(RUSSIAN.charAt(random.nextInt(RUSSIAN.length())));
+        }
+        return word.toString();
+    }
+
+    static String password(int length) {
+        StringBuilder password = new StringBuilder(length);
+        String symbols = "aB3$";
+        for (int i = 0; i < length; i++) {
+            password.append(symbols.charAt(i % symbols.length()));
+        }
+        return password.toString();
+    }
+
+    static void delete(Path directory) {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Path write(Path file, List<String> lines) {
+        try {
+            return Files.write(file, lines, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package deepsecure.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Примитивы подбора: перекодировка слова и переход к следующему кандидату полного перебора.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CrackerBenchmark {
+    @Param({"4", "8", "16"})
+    int length;
+
+    Path directory;
+    Object cracker;
+    String russianWord;
+    char[] chars;
+
+    @Setup
+    public void setUp() throws Throwable {
+        directory = BenchData.createTempDirectory();
+        cracker = (Object) AppBridge.NEW_CRACKER.invokeExact((Object) null,
+                directory.resolve("russian_dictionary.txt"), directory.resolve("russian_dictionary.cache"));
+        russianWord = BenchData.russianWord(new Random(42), length);
+        chars = new char[length];
+        Arrays.fill(chars, 'a');
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchData.delete(directory);
+    }
+
+    @Benchmark
+    public String convertRussianToLatin() throws Throwable {
+        return (String) AppBridge.CONVERT_RUSSIAN_TO_LATIN.invokeExact(russianWord);
+    }
+
+    // Переполнение последнего разряда случается раз в 26 вызовов, как и при реальном переборе.
+    @Benchmark
+    public boolean incrementChars() throws Throwable {
+        return (boolean) AppBridge.INCREMENT_CHARS.invokeExact(cracker, chars);
+    }
+}
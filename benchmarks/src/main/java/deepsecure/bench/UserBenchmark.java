@@ -0,0 +1,44 @@
+package deepsecure.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// User.login и User.isPasswordValid в зависимости от длины пароля.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserBenchmark {
+    @Param({"8", "64", "512"})
+    int passwordLength;
+
+    Object user;
+    String correctPassword;
+    String wrongPassword;
+
+    @Setup
+    public void setUp() throws Throwable {
+        String password = BenchData.password(passwordLength);
+        user = (Object) AppBridge.NEW_USER.invokeExact("user", password);
+        correctPassword = new String(password.toCharArray());
+        wrongPassword = password.substring(0, passwordLength - 1) + "#";
+    }
+
+    @Benchmark
+    public boolean loginSuccess() throws Throwable {
+        return (boolean) AppBridge.USER_LOGIN.invokeExact(user, correctPassword);
+    }
+
+    @Benchmark
+    public boolean loginFailure() throws Throwable {
+        return (boolean) AppBridge.USER_LOGIN.invokeExact(user, wrongPassword);
+    }
+
+    @Benchmark
+    public boolean isPasswordValid() throws Throwable {
+        return (boolean) AppBridge.USER_IS_PASSWORD_VALID.invokeExact(user, correctPassword);
+    }
+}
@@ -0,0 +1,87 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Класс AttackJob описывает выполняющуюся атаку: метод, цель, число попыток и признак отмены.
+// Атаки публикуют прогресс и проверяют отмену раз в PROGRESS_INTERVAL попыток,
+// поэтому учет почти не влияет на скорость перебора.
+class AttackJob {
+    static final int PROGRESS_INTERVAL = 4096;
+
+    private static final AtomicLong NEXT_ID = new AtomicLong(1);
+    private static final Map<Long, AttackJob> ACTIVE = new ConcurrentHashMap<>();
+
+    private final long id;
+    private final String method;
+    private final String username;
+    private final long startTime;
+    private volatile long attempts;
+    private volatile boolean cancelled;
+
+    private AttackJob(String method, String username) {
+        this.id = NEXT_ID.getAndIncrement();
+        this.method = method;
+        this.username = username;
+        this.startTime = System.nanoTime();
+    }
+
+    // Регистрирует новую атаку.
+    static AttackJob start(String method, String username) {
+        AttackJob job = new AttackJob(method, username);
+        ACTIVE.put(job.id, job);
+        return job;
+    }
+
+    // Снимает атаку с учета.
+    void finish() {
+        ACTIVE.remove(id);
+    }
+
+    // Список выполняющихся атак.
+    static List<AttackJob> active() {
+        return new ArrayList<>(ACTIVE.values());
+    }
+
+    // Отмена атаки по идентификатору.
+    static boolean cancel(long id) {
+        AttackJob job = ACTIVE.get(id);
+        if (job == null) {
+            return false;
+        }
+        job.cancelled = true;
+        return true;
+    }
+
+    // Отмена всех выполняющихся атак. Возвращает число отмененных.
+    static int cancelAll() {
+        int count = 0;
+        for (AttackJob job : ACTIVE.values()) {
+            job.cancelled = true;
+            count++;
+        }
+        return count;
+    }
+
+    // Публикация текущего числа попыток.
+    void progress(long attempts) {this.attempts = attempts;}
+
+    public long getId() {return id;}
+    public String getMethod() {return method;}
+    public String getUsername() {return username;}
+    public long getAttempts() {return attempts;}
+    public boolean isCancelled() {return cancelled;}
+
+    // Средняя скорость с начала атаки.
+    public double getAttemptsPerSecond() {
+        long elapsed = Math.max(1, System.nanoTime() - startTime);
+        return attempts / (elapsed / 1e9);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("#%d %s (%s): попыток %d, %.0f попыток/сек%s",
+                id, method, username, attempts, getAttemptsPerSecond(), cancelled ? ", отменяется" : "");
+    }
+}
@@ -0,0 +1,11 @@
+// Интерфейс управления атаками: выполняющиеся задания, их скорость и отмена.
+// Доступен через jconsole/VisualVM как CombinedPasswordSystem:type=Attacks.
+public interface AttackMonitorMXBean {
+    int getActiveJobCount();
+    String[] getActiveJobs();
+    double getAttemptsPerSecond();
+    long getTotalAttempts();
+
+    boolean cancel(long jobId);
+    int cancelAll();
+}
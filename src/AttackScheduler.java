@@ -0,0 +1,274 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Класс AttackScheduler выполняет несколько стратегий подбора одновременно на общем пуле потоков.
+// Процессорное время делится квантами пропорционально наблюдаемой успешности стратегии
+// (найденных паролей на попытку за все предыдущие запуски), соблюдается общий бюджет
+// попыток/времени, а при первом успехе все стратегии останавливаются.
+// Источник кандидатов однопоточный, поэтому при числе ядер не меньше числа стратегий доли
+// соблюдаются приостановкой: стратегия, обогнавшая по "виртуальному времени" attempts / weight
+// самую отстающую больше чем на квант, ждет, пока та ее догонит (ядро при этом простаивает).
+class AttackScheduler {
+    private static final int SLICE = 4096;               // Кандидатов за один квант
+    private static final double PRIOR_ATTEMPTS = 10000;  // Априорное число попыток на одну удачу
+    private static final long WAIT_MILLIS = 100;         // Как часто ожидающий поток проверяет отмену и срок
+
+    private static final ExecutorService SHARED_POOL = createPool();
+
+    private final Map<String, long[]> history = new HashMap<>(); // Стратегия -> {удачи, попытки}
+
+    private static ExecutorService createPool() {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), task -> {
+            Thread thread = new Thread(task, "attack-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Стратегия подбора и ее расход в текущем запуске.
+    static class Strategy {
+        private final String name;
+        private final CandidateSource source;
+        private double weight;     // Доля процессорного времени
+        private long attempts;     // Попыток в текущем запуске
+        private long nanos;        // Затраченное время в текущем запуске
+        private boolean running;   // Квант стратегии сейчас выполняется
+        private boolean exhausted; // Кандидаты закончились
+
+        Strategy(String name, CandidateSource source) {
+            this.name = name;
+            this.source = source;
+        }
+
+        public String getName() {return name;}
+        public long getAttempts() {return attempts;}
+        public long getNanos() {return nanos;}
+        public boolean isExhausted() {return exhausted;}
+    }
+
+    // Результат запуска планировщика.
+    static class Result {
+        private final String password;   // Найденный пароль или null
+        private final Strategy winner;   // Стратегия, нашедшая пароль
+        private final List<Strategy> strategies;
+        private final long attempts;
+        private final long nanos;
+        private final boolean budgetExceeded;
+
+        Result(String password, Strategy winner, List<Strategy> strategies, long attempts, long nanos, boolean budgetExceeded) {
+            this.password = password;
+            this.winner = winner;
+            this.strategies = strategies;
+            this.attempts = attempts;
+            this.nanos = nanos;
+            this.budgetExceeded = budgetExceeded;
+        }
+
+        public String getPassword() {return password;}
+        public Strategy getWinner() {return winner;}
+        public List<Strategy> getStrategies() {return strategies;}
+        public long getAttempts() {return attempts;}
+        public long getNanos() {return nanos;}
+        public boolean isBudgetExceeded() {return budgetExceeded;}
+
+        // Отчет о расходе по стратегиям.
+        public String describeStrategies() {
+            StringBuilder report = new StringBuilder("Расход по стратегиям:");
+            for (Strategy strategy : strategies) {
+                double share = attempts > 0 ? strategy.attempts * 100.0 / attempts : 0;
+                report.append(String.format("\n  %s: попыток %d (%.1f%%), время %.2f сек%s",
+                        strategy.name, strategy.attempts, share, strategy.nanos / 1e9,
+                        strategy.exhausted ? ", исчерпана" : ""));
+            }
+            return report.toString();
+        }
+    }
+
+    // Запуск стратегий для пользователя. maxAttempts и timeLimitMillis <= 0 означают отсутствие ограничения.
+    // Прогресс публикуется в job, отмена job останавливает все стратегии.
+    public Result run(User user, List<Strategy> strategies, long maxAttempts, long timeLimitMillis, AttackJob job) {
+        long startTime = System.nanoTime();
+        long deadline = timeLimitMillis > 0 ? startTime + timeLimitMillis * 1_000_000L : Long.MAX_VALUE;
+        Run run = new Run(user, strategies, maxAttempts > 0 ? maxAttempts : Long.MAX_VALUE, deadline, job);
+
+        synchronized (history) {
+            for (Strategy strategy : strategies) {
+                long[] stats = history.getOrDefault(strategy.name, new long[2]);
+                strategy.weight = (stats[0] + 1) / (stats[1] + PRIOR_ATTEMPTS);
+            }
+        }
+
+        int workers = Math.min(strategies.size(), Runtime.getRuntime().availableProcessors());
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < workers; i++) {
+            futures.add(SHARED_POOL.submit(run::work));
+        }
+        // Ждем все потоки, даже если один упал: остальные освобождаются через stopped
+        Throwable failure = null;
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                run.stop();
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                run.stop();
+                if (failure == null) {
+                    failure = e.getCause();
+                }
+            }
+        }
+        if (failure != null) {
+            throw new IllegalStateException("Ошибка при выполнении стратегии подбора", failure);
+        }
+
+        synchronized (history) {
+            for (Strategy strategy : strategies) {
+                long[] stats = history.computeIfAbsent(strategy.name, name -> new long[2]);
+                stats[0] += strategy == run.winner ? 1 : 0;
+                stats[1] += strategy.attempts;
+            }
+        }
+
+        return new Result(run.found, run.winner, strategies, run.totalAttempts,
+                System.nanoTime() - startTime, run.found == null && run.budgetExceeded);
+    }
+
+    // Состояние одного запуска. Выбор стратегии и учет расхода выполняются под блокировкой,
+    // сами кванты перебора - параллельно.
+    private static class Run {
+        private final User user;
+        private final List<Strategy> strategies;
+        private final long maxAttempts;
+        private final long deadline;
+        private final AttackJob job;
+        private long totalAttempts;
+        private boolean budgetExceeded;
+        private String found;
+        private Strategy winner;
+        private volatile boolean stopped;
+
+        Run(User user, List<Strategy> strategies, long maxAttempts, long deadline, AttackJob job) {
+            this.user = user;
+            this.strategies = strategies;
+            this.maxAttempts = maxAttempts;
+            this.deadline = deadline;
+            this.job = job;
+        }
+
+        void work() {
+            Strategy strategy;
+            while ((strategy = pick()) != null) {
+                long sliceStart = System.nanoTime();
+                long limit;
+                synchronized (this) {
+                    limit = Math.min(SLICE, maxAttempts - totalAttempts);
+                }
+                int attempts = 0;
+                String password = null;
+                boolean exhausted = false;
+                boolean completed = false;
+                try {
+                    while (attempts < limit && !stopped) {
+                        String candidate = strategy.source.next();
+                        if (candidate == null) {
+                            exhausted = true;
+                            break;
+                        }
+                        attempts++;
+                        if (user.login(candidate)) {
+                            password = candidate;
+                            break;
+                        }
+                    }
+                    completed = true;
+                } finally {
+                    // Исключение источника или проверки останавливает весь запуск, иначе
+                    // ожидающие в pick() потоки не проснулись бы никогда
+                    finish(strategy, attempts, System.nanoTime() - sliceStart, password, exhausted, !completed);
+                }
+            }
+        }
+
+        synchronized void stop() {
+            stopped = true;
+            notifyAll();
+        }
+
+        // Выбирает свободную стратегию с наименьшим "виртуальным временем" attempts / weight среди тех,
+        // что опережают самую отстающую (в том числе выполняющуюся) не больше чем на квант.
+        // Если таких нет, поток ждет окончания чужого кванта (проверяя отмену и срок).
+        private synchronized Strategy pick() {
+            while (!stopped && !limitReached()) {
+                double slowest = Double.MAX_VALUE;
+                for (Strategy strategy : strategies) {
+                    if (!strategy.exhausted) {
+                        slowest = Math.min(slowest, strategy.attempts / strategy.weight);
+                    }
+                }
+                if (slowest == Double.MAX_VALUE) {
+                    return null; // Все стратегии исчерпаны
+                }
+                Strategy best = null;
+                for (Strategy strategy : strategies) {
+                    if (strategy.running || strategy.exhausted
+                            || strategy.attempts / strategy.weight > slowest + SLICE / strategy.weight) {
+                        continue;
+                    }
+                    if (best == null || strategy.attempts / strategy.weight < best.attempts / best.weight) {
+                        best = strategy;
+                    }
+                }
+                if (best != null) {
+                    best.running = true;
+                    return best;
+                }
+                try {
+                    long waitMillis = WAIT_MILLIS;
+                    if (deadline != Long.MAX_VALUE) {
+                        waitMillis = Math.max(1, Math.min(waitMillis, (deadline - System.nanoTime()) / 1_000_000L));
+                    }
+                    wait(waitMillis);
+                } catch (InterruptedException e) {
+                    stopped = true;
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return null;
+        }
+
+        private synchronized void finish(Strategy strategy, int attempts, long nanos, String password,
+                                         boolean exhausted, boolean failed) {
+            strategy.running = false;
+            strategy.attempts += attempts;
+            strategy.nanos += nanos;
+            strategy.exhausted = exhausted;
+            totalAttempts += attempts;
+            job.progress(totalAttempts);
+
+            if (failed) {
+                stopped = true;
+            } else if (password != null && found == null) {
+                found = password;
+                winner = strategy;
+                stopped = true;
+            } else {
+                limitReached();
+            }
+            notifyAll(); // Ожидающие потоки пересчитывают, какие стратегии можно запускать
+        }
+
+        // Проверка отмены и бюджета; при срабатывании запуск останавливается.
+        private synchronized boolean limitReached() {
+            if (job.isCancelled()) {
+                stopped = true;
+            } else if (totalAttempts >= maxAttempts || System.nanoTime() >= deadline) {
+                budgetExceeded = true;
+                stopped = true;
+            }
+            return stopped;
+        }
+    }
+}
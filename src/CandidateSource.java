@@ -0,0 +1,5 @@
+// Источник кандидатов для одной стратегии подбора. next() возвращает null, когда кандидаты закончились.
+// Источник вызывается только из одного потока за раз, поэтому может хранить состояние без синхронизации.
+interface CandidateSource {
+    String next();
+}
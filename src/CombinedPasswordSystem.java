@@ -6,19 +6,24 @@ import java.io.*;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.math.RoundingMode;
-import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
 import java.util.regex.Pattern;
 
 // Остальные классы (User, Admin, AuthenticationSystem) остаются без изменений
 // Класс User представляет обычного пользователя.
 class User {
     private String username; // Имя пользователя
-    private String password; // Пароль пользователя
-    private boolean isBlocked; // Флаг блокировки пользователя
-    private boolean passwordRestrictionsEnabled; // Флаг ограничений на пароль
+    // Поля, хранящиеся в файле, могут обновляться потоком перезагрузки во время входа
+    private volatile String password; // Пароль пользователя
+    private volatile boolean isBlocked; // Флаг блокировки пользователя
+    private volatile boolean passwordRestrictionsEnabled; // Флаг ограничений на пароль
     private int failedLoginAttempts; // Счетчик неудачных попыток ввода пароля
 
     // Поля для индивидуальных ограничений
@@ -57,7 +62,8 @@ class User {
     public int getFailedLoginAttempts() {return failedLoginAttempts;}
     public void setFailedLoginAttempts(int failedLoginAttempts) {this.failedLoginAttempts = failedLoginAttempts;}
 
-    // Метод для проверки пароля пользователя.
+    // Метод для проверки пароля пользователя. Вызывается в цикле подбора, поэтому не измеряется:
+    // интерактивные входы учитываются в CombinedPasswordSystem.verifyLogin, попытки атак - пакетно.
     public boolean login(String enteredPassword) {
         return this.password.equals(enteredPassword);
     }
@@ -118,14 +124,26 @@ class Admin extends User {
 
 // Класс AuthenticationSystem управляет аутентификацией и хранением данных.
 class AuthenticationSystem {
-    private List<User> users; // Список пользователей
+    private List<User> users; // Список пользователей (копируется при изменении, читается без блокировок)
     private String dataFile;   // Имя файла для хранения данных
+    private final UsersFile file;
+    // Строки файла при последней синхронизации (имя -> строка) и их версия.
+    // Изменяются под блокировкой this; вход пользователей ее не берет.
+    private Map<String, String> baseline = new LinkedHashMap<>();
+    private long version;
 
     // Конструктор для инициализации системы аутентификации.
     public AuthenticationSystem(String dataFile) {
+        this(dataFile, true);
+    }
+
+    // Конструктор, позволяющий не создавать администратора при пустом файле
+    // (для команд, которые не должны изменять файл данных).
+    public AuthenticationSystem(String dataFile, boolean createAdmin) {
         this.dataFile = dataFile;
-        this.users = loadUsers(); // Загрузка пользователей из файла
-        if (users.isEmpty()) {
+        this.file = new UsersFile(dataFile);
+        this.users = new CopyOnWriteArrayList<>(loadUsers()); // Загрузка пользователей из файла
+        if (users.isEmpty() && createAdmin) {
             // При первом запуске создаем администратора с пустым паролем
             users.add(new Admin("admin", ""));
             saveUsers();
@@ -133,40 +151,215 @@ class AuthenticationSystem {
     }
 
     // Метод для загрузки пользователей из файла.
-    private List<User> loadUsers() {
+    private synchronized List<User> loadUsers() {
+        long start = System.nanoTime();
         List<User> userList = new ArrayList<>(); // Создаем пустой список пользователей
-        try (BufferedReader reader = new BufferedReader(new FileReader(dataFile))) {
-            String line;
-            // Читаем файл построчно
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split(","); // Разделяем строку по запятой
-                String username = parts[0];      // Имя пользователя
-                String password = parts[1];      // Пароль
-                boolean isBlocked = Boolean.parseBoolean(parts[2]); // Флаг блокировки
-                boolean passwordRestrictionsEnabled = Boolean.parseBoolean(parts[3]); // Флаг ограничений на пароль
-                // Создаем объект User или Admin в зависимости от роли
-                User user = (username.equals("admin")) ? new Admin(username, password) : new User(username, password);
-                user.setBlocked(isBlocked);
-                user.setPasswordRestrictionsEnabled(passwordRestrictionsEnabled);
-                userList.add(user);
+        Map<String, String> lines = new LinkedHashMap<>();
+        try {
+            UsersFile.Snapshot snapshot = file.read(-1);
+            if (!snapshot.exists()) {
+                System.out.println("Данные о пользователях не найдены. Начинаем с пустого списка.");
+            }
+            // Разбираем файл построчно
+            for (String line : snapshot.getLines()) {
+                if (!line.isEmpty() && !lines.containsKey(usernameOf(line))) {
+                    userList.add(parseUser(line));
+                    lines.put(usernameOf(line), line);
+                }
             }
+            version = snapshot.getVersion();
         } catch (IOException e) {
-            System.out.println("Данные о пользователях не найдены. Начинаем с пустого списка.");
+            System.out.println("Ошибка при чтении данных о пользователях: " + e.getMessage());
         }
+        baseline = lines;
+        Metrics.USERS_LOAD.recordSince(start);
         return userList;
     }
 
-    // Метод для сохранения пользователей в файл.
-    public void saveUsers() {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(dataFile))) {
-            for (User user : users) {
-                // Записываем данные в файл в формате: username,password,isBlocked,passwordRestrictionsEnabled
-                writer.write(user.getUsername() + "," + user.getPassword() + "," + user.isBlocked() + "," + user.isPasswordRestrictionsEnabled());
-                writer.newLine(); // Переход на новую строку
+    // Запуск наблюдения за файлом: изменения, сделанные другими процессами или вручную,
+    // подхватываются автоматически.
+    public void startWatching() {
+        try {
+            file.watch(this::reloadUsers);
+        } catch (IOException e) {
+            System.out.println("Не удалось отслеживать изменения файла " + dataFile + ": " + e.getMessage());
+        }
+    }
+
+    // Метод для перезагрузки пользователей. Разбираются только строки, изменившиеся с последней
+    // синхронизации; существующие пользователи обновляются на месте, поэтому вход не блокируется.
+    public synchronized void reloadUsers() {
+        long start = System.nanoTime();
+        try {
+            UsersFile.Snapshot snapshot = file.read(version);
+            if (snapshot.getLines() != null) {
+                apply(fileLines(baseline, snapshot));
+            }
+            version = snapshot.getVersion();
+        } catch (IOException e) {
+            System.out.println("Ошибка при чтении данных о пользователях: " + e.getMessage());
+        }
+        Metrics.USERS_RELOAD.recordSince(start);
+    }
+
+    // Применяет строки файла к пользователям в памяти и делает их новой базой.
+    private void apply(List<String> lines) {
+        Map<String, User> byName = new HashMap<>();
+        for (User user : users) {
+            byName.put(user.getUsername(), user);
+        }
+        Map<String, String> synced = new LinkedHashMap<>();
+        List<User> added = new ArrayList<>();
+        for (String line : lines) {
+            String username = usernameOf(line);
+            if (line.isEmpty() || synced.containsKey(username)) {
+                continue;
             }
+            synced.put(username, line);
+            if (line.equals(baseline.get(username)) && byName.containsKey(username)) {
+                continue; // Строка не менялась
+            }
+            User parsed;
+            try {
+                parsed = parseUser(line);
+            } catch (RuntimeException e) {
+                System.out.println("Некорректная строка в " + dataFile + ": " + line);
+                continue;
+            }
+            Metrics.USERS_RELOAD_PARSED.increment();
+            User existing = byName.get(username);
+            if (existing == null) {
+                added.add(parsed);
+            } else {
+                existing.setPassword(parsed.getPassword());
+                existing.setBlocked(parsed.isBlocked());
+                existing.setPasswordRestrictionsEnabled(parsed.isPasswordRestrictionsEnabled());
+            }
+        }
+        users.addAll(added);
+        users.removeIf(user -> !synced.containsKey(user.getUsername()));
+        baseline = synced;
+    }
+
+    // Строки файла по изменениям с последней синхронизации: без изменений - база,
+    // только дописанные строки - база и дописанное, иначе - файл целиком.
+    private static List<String> fileLines(Map<String, String> base, UsersFile.Snapshot snapshot) {
+        if (snapshot.getLines() == null) {
+            return new ArrayList<>(base.values());
+        }
+        if (snapshot.isAppended()) {
+            List<String> lines = new ArrayList<>(base.values());
+            lines.addAll(snapshot.getLines());
+            return lines;
+        }
+        return snapshot.getLines();
+    }
+
+    // Трехстороннее слияние при сохранении: base - файл при последней синхронизации,
+    // ours - пользователи в памяти, theirs - текущий файл. Записи сливаются по полям (mergeRecord),
+    // поэтому изменения разных полей одного пользователя в разных процессах не теряются.
+    static List<String> merge(Map<String, String> base, Map<String, String> ours, List<String> theirs) {
+        List<String> result = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (String line : theirs) {
+            String username = usernameOf(line);
+            if (line.isEmpty() || !seen.add(username)) {
+                continue;
+            }
+            String mine = ours.get(username);
+            String old = base.get(username);
+            if (mine == null) {
+                if (!line.equals(old)) {
+                    result.add(line); // Добавлен или изменен другим процессом
+                }
+            } else {
+                result.add(mergeRecord(old, mine, line));
+            }
+        }
+        for (Map.Entry<String, String> entry : ours.entrySet()) {
+            if (!seen.contains(entry.getKey()) && !entry.getValue().equals(base.get(entry.getKey()))) {
+                result.add(entry.getValue()); // Новый пользователь этого процесса
+            }
+        }
+        return result;
+    }
+
+    // Слияние одной записи по полям: поле, измененное только одной стороной, берется с этой стороны.
+    // Если обе стороны изменили одно поле по-разному, остается значение этого процесса (ours).
+    static String mergeRecord(String old, String mine, String theirs) {
+        if (mine.equals(old) || mine.equals(theirs)) {
+            return theirs;
+        }
+        if (theirs.equals(old)) {
+            return mine;
+        }
+        String[] mineFields = mine.split(",", -1);
+        String[] theirFields = theirs.split(",", -1);
+        String[] oldFields = old != null ? old.split(",", -1) : null;
+        if (oldFields == null || oldFields.length != mineFields.length || oldFields.length != theirFields.length) {
+            System.out.println("Конфликт изменений пользователя " + usernameOf(mine) + ": сохранена версия этого процесса.");
+            return mine;
+        }
+        String[] merged = new String[mineFields.length];
+        boolean conflict = false;
+        for (int i = 0; i < merged.length; i++) {
+            if (mineFields[i].equals(oldFields[i])) {
+                merged[i] = theirFields[i];
+            } else {
+                conflict |= !theirFields[i].equals(oldFields[i]) && !theirFields[i].equals(mineFields[i]);
+                merged[i] = mineFields[i];
+            }
+        }
+        if (conflict) {
+            System.out.println("Конфликт изменений пользователя " + usernameOf(mine) + ": сохранена версия этого процесса.");
+        }
+        return String.join(",", merged);
+    }
+
+    private static String usernameOf(String line) {
+        int comma = line.indexOf(',');
+        return comma >= 0 ? line.substring(0, comma) : line;
+    }
+
+    // Метод для разбора строки файла в формате: username,password,isBlocked,passwordRestrictionsEnabled
+    static User parseUser(String line) {
+        String[] parts = line.split(","); // Разделяем строку по запятой
+        String username = parts[0];      // Имя пользователя
+        String password = parts[1];      // Пароль
+        boolean isBlocked = Boolean.parseBoolean(parts[2]); // Флаг блокировки
+        boolean passwordRestrictionsEnabled = Boolean.parseBoolean(parts[3]); // Флаг ограничений на пароль
+        // Создаем объект User или Admin в зависимости от роли
+        User user = (username.equals("admin")) ? new Admin(username, password) : new User(username, password);
+        user.setBlocked(isBlocked);
+        user.setPasswordRestrictionsEnabled(passwordRestrictionsEnabled);
+        return user;
+    }
+
+    // Метод для получения строки файла в формате: username,password,isBlocked,passwordRestrictionsEnabled
+    static String formatUser(User user) {
+        return user.getUsername() + "," + user.getPassword() + "," + user.isBlocked() + "," + user.isPasswordRestrictionsEnabled();
+    }
+
+    // Метод для сохранения пользователей в файл.
+    // Изменения, сделанные в файле другими процессами после последней синхронизации, сохраняются.
+    public synchronized void saveUsers() {
+        long start = System.nanoTime();
+        Map<String, String> ours = new LinkedHashMap<>();
+        for (User user : users) {
+            ours.putIfAbsent(user.getUsername(), formatUser(user));
+        }
+        Map<String, String> base = baseline;
+        try {
+            UsersFile.Snapshot snapshot = file.write(version, changes -> merge(base, ours, fileLines(base, changes)));
+            // Собственные изменения уже в памяти, разбирать нужно только чужие
+            baseline = new LinkedHashMap<>(base);
+            baseline.putAll(ours);
+            apply(snapshot.getLines());
+            version = snapshot.getVersion();
         } catch (IOException e) {
             System.out.println("Ошибка при сохранении данных о пользователях.");
         }
+        Metrics.USERS_SAVE.recordSince(start);
     }
 
     // Метод для поиска пользователя по имени.
@@ -179,6 +372,16 @@ class AuthenticationSystem {
         return null;
     }
 
+    // Метод для добавления пользователя или замены пользователя с тем же именем (без диалогов и сохранения).
+    public void putUser(User user) {
+        User existing = findUser(user.getUsername());
+        if (existing != null) {
+            users.set(users.indexOf(existing), user);
+        } else {
+            users.add(user);
+        }
+    }
+
     // Метод для добавления нового пользователя.
     public void addUser(String username) {
         if (findUser(username) != null) {
@@ -218,9 +421,11 @@ class AuthenticationSystem {
 }
 
 public class CombinedPasswordSystem extends JFrame {
-    private AuthenticationSystem authSystem;
+    private static final long LAUNCH_TIME = System.nanoTime(); // Момент загрузки класса, т.е. запуска main
+
+    private AuthenticationSystem authSystem; // null, пока пользователи загружаются
     private PasswordStrengthAnalyzer strengthAnalyzer;
-    private PasswordCracker passwordCracker;
+    private CompletableFuture<PasswordCracker> passwordCracker; // Словарь загружается в фоне
     private JTextField usernameField;
     private JPasswordField passwordField;
     private JButton loginButton;
@@ -228,10 +433,10 @@ public class CombinedPasswordSystem extends JFrame {
     private JButton analyzeButton;
     private JLabel messageLabel;
 
+    // Окно показывается сразу. Пользователи, MBean-ы и словарь загружаются в фоне:
+    // вход и регистрация становятся доступны после загрузки пользователей, а анализ пароля - сразу.
     public CombinedPasswordSystem() {
-        authSystem = new AuthenticationSystem("users.txt");
         strengthAnalyzer = new PasswordStrengthAnalyzer();
-        passwordCracker = new PasswordCracker(authSystem);
 
         setTitle("Комбинированная система паролей");
         setSize(500, 350);
@@ -258,7 +463,7 @@ public class CombinedPasswordSystem extends JFrame {
         analyzeButton = new JButton("Анализ пароля");
         panel.add(analyzeButton);
 
-        messageLabel = new JLabel("");
+        messageLabel = new JLabel("Загрузка пользователей...");
         panel.add(messageLabel);
 
         add(panel);
@@ -267,6 +472,77 @@ public class CombinedPasswordSystem extends JFrame {
         loginButton.addActionListener(e -> handleLogin());
         registerButton.addActionListener(e -> handleRegistration());
         analyzeButton.addActionListener(e -> showPasswordAnalysisDialog());
+
+        loginButton.setEnabled(false);
+        registerButton.setEnabled(false);
+        addWindowListener(new java.awt.event.WindowAdapter() {
+            @Override
+            public void windowOpened(java.awt.event.WindowEvent e) {
+                Metrics.STARTUP_WINDOW.recordSince(LAUNCH_TIME);
+            }
+        });
+        loadUsersInBackground();
+    }
+
+    // Загрузка пользователей в фоновом потоке. После нее включаются кнопки входа
+    // и начинается фоновая загрузка словаря для подбора паролей.
+    private void loadUsersInBackground() {
+        new SwingWorker<AuthenticationSystem, Void>() {
+            @Override
+            protected AuthenticationSystem doInBackground() {
+                AuthenticationSystem loaded = new AuthenticationSystem("users.txt");
+                loaded.startWatching();
+                SystemMonitor.register(loaded);
+                return loaded;
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    authSystem = get();
+                } catch (InterruptedException | ExecutionException e) {
+                    messageLabel.setText("Ошибка загрузки пользователей");
+                    System.out.println("Ошибка загрузки пользователей: " + e.getMessage());
+                    return;
+                }
+                Metrics.STARTUP_USERS.recordSince(LAUNCH_TIME);
+                passwordCracker = preloadPasswordCracker(authSystem);
+                loginButton.setEnabled(true);
+                registerButton.setEnabled(true);
+                messageLabel.setText("");
+            }
+        }.execute();
+    }
+
+    // Словарь нужен только в диалоге подбора пароля, поэтому он загружается
+    // в фоновом потоке с низким приоритетом, чтобы не мешать интерфейсу.
+    private static CompletableFuture<PasswordCracker> preloadPasswordCracker(AuthenticationSystem authSystem) {
+        CompletableFuture<PasswordCracker> future = new CompletableFuture<>();
+        Thread loader = new Thread(() -> {
+            try {
+                future.complete(new PasswordCracker(authSystem));
+                Metrics.STARTUP_CRACKER.recordSince(LAUNCH_TIME);
+            } catch (Throwable e) {
+                // Включая Error (например, нехватку памяти при сборке словаря): иначе диалог подбора ждал бы вечно
+                future.completeExceptionally(e);
+            }
+        }, "dictionary-loader");
+        loader.setDaemon(true);
+        loader.setPriority(Thread.MIN_PRIORITY);
+        loader.start();
+        return future;
+    }
+
+    // Ожидает окончания фоновой загрузки словаря (обычно она завершается раньше, чем открывается диалог).
+    // Если загрузка не удалась, показывает сообщение и возвращает null.
+    private PasswordCracker getPasswordCracker() {
+        try {
+            return passwordCracker.join();
+        } catch (CompletionException e) {
+            System.out.println("Ошибка загрузки словаря: " + e.getCause());
+            JOptionPane.showMessageDialog(this, "Не удалось загрузить словарь для подбора: " + e.getCause());
+            return null;
+        }
     }
 
     private void handleLogin() {
@@ -284,7 +560,7 @@ public class CombinedPasswordSystem extends JFrame {
             return;
         }
 
-        if (user.login(password)) {
+        if (verifyLogin(user, password)) {
             messageLabel.setText("Вход выполнен успешно");
             if (user instanceof Admin) {
                 openAdminMenu((Admin) user);
@@ -301,6 +577,15 @@ public class CombinedPasswordSystem extends JFrame {
         }
     }
 
+    // Проверка пароля, введенного пользователем, с учетом в метриках login.*.
+    private static boolean verifyLogin(User user, String password) {
+        long start = System.nanoTime();
+        boolean success = user.login(password);
+        Metrics.LOGIN_LATENCY.recordSince(start);
+        (success ? Metrics.LOGIN_SUCCESS : Metrics.LOGIN_FAILURE).increment();
+        return success;
+    }
+
     private void handleRegistration() {
         String username = usernameField.getText();
         authSystem.addUser(username);
@@ -313,7 +598,7 @@ public class CombinedPasswordSystem extends JFrame {
 
         JPanel inputPanel = new JPanel(new GridLayout(3, 2, 10, 10));
         JTextField passwordField = new JTextField();
-        JTextField speedField = new JTextField("1000");
+        JTextField speedField = new JTextField(speedFieldDefault());
         JTextField attemptsField = new JTextField("10");
         JTextField pauseField = new JTextField("5");
 
@@ -338,7 +623,7 @@ public class CombinedPasswordSystem extends JFrame {
                 double pause = Double.parseDouble(pauseField.getText());
 
                 String analysisResult = strengthAnalyzer.analyzePassword(password, speed, attempts, pause);
-                resultArea.setText(analysisResult);
+                resultArea.setText(analysisResult + "\n\nМетрики:\n" + Metrics.snapshot("analyzer."));
             } catch (NumberFormatException ex) {
                 resultArea.setText("Ошибка: введите корректные числовые значения");
             }
@@ -347,9 +632,42 @@ public class CombinedPasswordSystem extends JFrame {
         analysisDialog.add(inputPanel, BorderLayout.NORTH);
         analysisDialog.add(new JScrollPane(resultArea), BorderLayout.CENTER);
         analysisDialog.add(analyzeButton, BorderLayout.SOUTH);
+        if (SpeedCalibrator.cachedAttemptsPerSecond() == 0) {
+            calibrateInBackground(speedField);
+        }
         analysisDialog.setVisible(true);
     }
 
+    // Скорость перебора по умолчанию: измеренная на этом компьютере, если измерение уже было.
+    private static String speedFieldDefault() {
+        return String.valueOf(Math.round(SpeedCalibrator.defaultAttemptsPerSecond()));
+    }
+
+    // Первое измерение скорости выполняется в фоне; результат подставляется в поле,
+    // если пользователь не успел изменить значение.
+    private static void calibrateInBackground(JTextField speedField) {
+        String initial = speedField.getText();
+        speedField.setToolTipText("Идет измерение скорости перебора на этом компьютере...");
+        new SwingWorker<Double, Void>() {
+            @Override
+            protected Double doInBackground() {
+                return SpeedCalibrator.attemptsPerSecond();
+            }
+
+            @Override
+            protected void done() {
+                speedField.setToolTipText(null);
+                try {
+                    if (speedField.getText().equals(initial)) {
+                        speedField.setText(String.valueOf(Math.round(get())));
+                    }
+                } catch (InterruptedException | ExecutionException e) {
+                    System.out.println("Ошибка калибровки скорости перебора: " + e.getMessage());
+                }
+            }
+        }.execute();
+    }
+
     private void openAdminMenu(Admin admin) {
         JFrame adminFrame = new JFrame("Меню администратора");
         adminFrame.setSize(600, 400);
@@ -357,7 +675,7 @@ public class CombinedPasswordSystem extends JFrame {
         adminFrame.setLocationRelativeTo(null);
 
         JPanel panel = new JPanel();
-        panel.setLayout(new GridLayout(7, 1, 10, 10));
+        panel.setLayout(new GridLayout(8, 1, 10, 10));
 
         JButton changePasswordButton = new JButton("Сменить пароль");
         JButton viewUsersButton = new JButton("Просмотреть пользователей");
@@ -366,6 +684,7 @@ public class CombinedPasswordSystem extends JFrame {
         JButton toggleRestrictionsButton = new JButton("Включить/отключить ограничения на пароли");
         JButton setPasswordRulesButton = new JButton("Настроить ограничения на пароль");
         JButton crackPasswordButton = new JButton("Подобрать пароль ADMIN");
+        JButton metricsButton = new JButton("Метрики");
 
         panel.add(changePasswordButton);
         panel.add(viewUsersButton);
@@ -374,6 +693,7 @@ public class CombinedPasswordSystem extends JFrame {
         panel.add(toggleRestrictionsButton);
         panel.add(setPasswordRulesButton);
         panel.add(crackPasswordButton);
+        panel.add(metricsButton);
 
         adminFrame.add(panel);
         adminFrame.setVisible(true);
@@ -386,47 +706,153 @@ public class CombinedPasswordSystem extends JFrame {
         toggleRestrictionsButton.addActionListener(e -> toggleRestrictions());
         setPasswordRulesButton.addActionListener(e -> setPasswordRules());
         crackPasswordButton.addActionListener(e -> crackAdminPassword());
+        metricsButton.addActionListener(e -> showMetricsWindow());
     }
 
     private void crackAdminPassword() {
         JDialog crackDialog = new JDialog(this, "Подбор пароля ADMIN", true);
-        crackDialog.setSize(500, 300);
+        crackDialog.setSize(500, 360);
         crackDialog.setLayout(new BorderLayout());
 
         JPanel methodPanel = new JPanel();
-        methodPanel.setLayout(new GridLayout(3, 1));
+        methodPanel.setLayout(new GridLayout(7, 1));
+
+        // Максимальная длина для перебора: полный перебор растет как 26^длина,
+        // перебор по вероятности доходит до длинных паролей с цифровым окончанием
+        JPanel lengthPanel = new JPanel(new GridLayout(1, 2));
+        JTextField maxLengthField = new JTextField("6");
+        lengthPanel.add(new JLabel("Макс. длина пароля:"));
+        lengthPanel.add(maxLengthField);
+
+        // Общий бюджет комбинированного метода (0 - без ограничения)
+        JPanel attemptsPanel = new JPanel(new GridLayout(1, 2));
+        JTextField maxAttemptsField = new JTextField("0");
+        attemptsPanel.add(new JLabel("Макс. попыток (0 - без ограничения):"));
+        attemptsPanel.add(maxAttemptsField);
+        JPanel timePanel = new JPanel(new GridLayout(1, 2));
+        JTextField timeLimitField = new JTextField("0");
+        timePanel.add(new JLabel("Время, сек (0 - без ограничения):"));
+        timePanel.add(timeLimitField);
 
         JButton dictionaryButton = new JButton("Метод словаря");
         JButton bruteForceButton = new JButton("Полный перебор");
         JButton combinedButton = new JButton("Комбинированный метод");
+        JButton markovButton = new JButton("Перебор по вероятности (Марков)");
 
         JTextArea resultArea = new JTextArea();
         resultArea.setEditable(false);
 
         dictionaryButton.addActionListener(e -> {
-            String result = passwordCracker.dictionaryAttack("admin");
-            resultArea.setText(result);
+            PasswordCracker cracker = getPasswordCracker();
+            if (cracker == null) {
+                return;
+            }
+            String result = cracker.dictionaryAttack("admin");
+            resultArea.setText(result + "\n\nМетрики:\n" + Metrics.snapshot("attack."));
         });
 
         bruteForceButton.addActionListener(e -> {
-            String result = passwordCracker.bruteForceAttack("admin", 6);
-            resultArea.setText(result);
+            int maxLength = parseMaxLength(maxLengthField.getText());
+            if (maxLength <= 0) {
+                resultArea.setText("Ошибка: введите положительную максимальную длину");
+                return;
+            }
+            PasswordCracker cracker = getPasswordCracker();
+            if (cracker == null) {
+                return;
+            }
+            String result = cracker.bruteForceAttack("admin", maxLength);
+            resultArea.setText(result + "\n\nМетрики:\n" + Metrics.snapshot("attack."));
         });
 
         combinedButton.addActionListener(e -> {
-            String result = passwordCracker.combinedAttack("admin", 6);
-            resultArea.setText(result);
+            int maxLength = parseMaxLength(maxLengthField.getText());
+            if (maxLength <= 0) {
+                resultArea.setText("Ошибка: введите положительную максимальную длину");
+                return;
+            }
+            long maxAttempts = parseBudget(maxAttemptsField.getText());
+            long timeLimitSeconds = parseBudget(timeLimitField.getText());
+            if (maxAttempts < 0 || timeLimitSeconds < 0) {
+                resultArea.setText("Ошибка: число попыток и время должны быть неотрицательными целыми");
+                return;
+            }
+            PasswordCracker cracker = getPasswordCracker();
+            if (cracker == null) {
+                return;
+            }
+            String result = cracker.combinedAttack("admin", maxLength, maxAttempts, timeLimitSeconds * 1000);
+            resultArea.setText(result + "\n\nМетрики:\n" + Metrics.snapshot("attack."));
+        });
+
+        markovButton.addActionListener(e -> {
+            int maxLength = parseMaxLength(maxLengthField.getText());
+            if (maxLength <= 0) {
+                resultArea.setText("Ошибка: введите положительную максимальную длину");
+                return;
+            }
+            PasswordCracker cracker = getPasswordCracker();
+            if (cracker == null) {
+                return;
+            }
+            String result = cracker.markovAttack("admin", maxLength);
+            resultArea.setText(result + "\n\nМетрики:\n" + Metrics.snapshot("attack."));
         });
 
+        methodPanel.add(lengthPanel);
+        methodPanel.add(attemptsPanel);
+        methodPanel.add(timePanel);
         methodPanel.add(dictionaryButton);
         methodPanel.add(bruteForceButton);
         methodPanel.add(combinedButton);
+        methodPanel.add(markovButton);
 
         crackDialog.add(methodPanel, BorderLayout.NORTH);
         crackDialog.add(new JScrollPane(resultArea), BorderLayout.CENTER);
         crackDialog.setVisible(true);
     }
 
+    // Максимальная длина из поля диалога подбора или -1 при некорректном вводе.
+    private static int parseMaxLength(String text) {
+        try {
+            return Integer.parseInt(text.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // Ограничение бюджета из поля диалога подбора (0 - без ограничения) или -1 при некорректном вводе.
+    private static long parseBudget(String text) {
+        try {
+            return Math.max(-1, Long.parseLong(text.trim()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // Окно метрик, обновляемое раз в секунду.
+    private void showMetricsWindow() {
+        JFrame metricsFrame = new JFrame("Метрики");
+        metricsFrame.setSize(700, 400);
+        metricsFrame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+        metricsFrame.setLocationRelativeTo(null);
+
+        JTextArea metricsArea = new JTextArea(Metrics.snapshot());
+        metricsArea.setEditable(false);
+        metricsArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        metricsFrame.add(new JScrollPane(metricsArea));
+
+        javax.swing.Timer refreshTimer = new javax.swing.Timer(1000, e -> metricsArea.setText(Metrics.snapshot()));
+        refreshTimer.start();
+        metricsFrame.addWindowListener(new java.awt.event.WindowAdapter() {
+            @Override
+            public void windowClosed(java.awt.event.WindowEvent e) {
+                refreshTimer.stop();
+            }
+        });
+        metricsFrame.setVisible(true);
+    }
+
     // Остальные методы меню администратора и пользователя...
     private void openUserMenu(User user) {
         JFrame userFrame = new JFrame("Меню пользователя");
@@ -452,7 +878,7 @@ public class CombinedPasswordSystem extends JFrame {
 
     private void changePassword(User user) {
         String oldPassword = JOptionPane.showInputDialog("Введите старый пароль:");
-        if (oldPassword != null && user.login(oldPassword)) {
+        if (oldPassword != null && verifyLogin(user, oldPassword)) {
             String newPassword = JOptionPane.showInputDialog("Введите новый пароль:");
             if (newPassword != null) {
                 if (!user.isPasswordRestrictionsEnabled() || user.isPasswordValid(newPassword)) {
@@ -564,7 +990,14 @@ public class CombinedPasswordSystem extends JFrame {
 }
 
 class PasswordStrengthAnalyzer {
+    // Анализ со скоростью перебора, сохраненной калибровкой на этом компьютере (см. SpeedCalibrator),
+    // или со скоростью по умолчанию, если калибровки не было. Само измерение здесь не запускается.
+    public String analyzePassword(String password, int attemptsBeforePause, double pauseDuration) {
+        return analyzePassword(password, SpeedCalibrator.defaultAttemptsPerSecond(), attemptsBeforePause, pauseDuration);
+    }
+
     public String analyzePassword(String password, double speed, int attemptsBeforePause, double pauseDuration) {
+        long start = System.nanoTime();
         int N = calculateAlphabetSize(password);
         BigInteger M = calculateCombinations(N, password.length());
 
@@ -577,14 +1010,29 @@ class PasswordStrengthAnalyzer {
             strengthInfo += "\nОценка времени взлома:\n" + timeEstimate;
         }
 
+        Metrics.ANALYZER.recordSince(start);
         return strengthInfo;
     }
 
+    // Классы символов определяются одним проходом без регулярных выражений: это дешевле
+    // и не требует инициализации java.util.regex при запуске из командной строки.
     private int calculateAlphabetSize(String password) {
-        boolean hasLower = password.matches(".*[a-z].*");
-        boolean hasUpper = password.matches(".*[A-Z].*");
-        boolean hasDigit = password.matches(".*\\d.*");
-        boolean hasSpecial = !password.matches("[A-Za-z0-9]*");
+        boolean hasLower = false;
+        boolean hasUpper = false;
+        boolean hasDigit = false;
+        boolean hasSpecial = false;
+        for (int i = 0; i < password.length(); i++) {
+            char c = password.charAt(i);
+            if (c >= 'a' && c <= 'z') {
+                hasLower = true;
+            } else if (c >= 'A' && c <= 'Z') {
+                hasUpper = true;
+            } else if (c >= '0' && c <= '9') {
+                hasDigit = true;
+            } else {
+                hasSpecial = true;
+            }
+        }
 
         int N = 0;
         if (hasLower) N += 26;
@@ -655,18 +1103,28 @@ class PasswordStrengthAnalyzer {
 }
 
 class PasswordCracker {
+    static final String DICTIONARY_FILE = "russian_dictionary.txt";
+    static final String DICTIONARY_CACHE_FILE = "russian_dictionary.cache";
+
+    private static final Map<Character, Character> russianToLatinMap = createRussianToLatinMap();
+
     private AuthenticationSystem authSystem;
-    private Map<Character, Character> russianToLatinMap;
-    private List<String> dictionary;
+    private DictionaryCache dictionary;
+    private MarkovModel markovModel; // Обучается на словаре при первой марковской атаке
+    private final AttackScheduler scheduler = new AttackScheduler();
 
     public PasswordCracker(AuthenticationSystem authSystem) {
+        this(authSystem, Paths.get(DICTIONARY_FILE), Paths.get(DICTIONARY_CACHE_FILE));
+    }
+
+    // Конструктор с явными путями к словарю и его кэшу.
+    public PasswordCracker(AuthenticationSystem authSystem, Path dictionaryFile, Path cacheFile) {
         this.authSystem = authSystem;
-        initializeRussianToLatinMap();
-        loadDictionary();
+        loadDictionary(dictionaryFile, cacheFile);
     }
 
-    private void initializeRussianToLatinMap() {
-        russianToLatinMap = new HashMap<>();
+    private static Map<Character, Character> createRussianToLatinMap() {
+        Map<Character, Character> russianToLatinMap = new HashMap<>();
         russianToLatinMap.put('а', 'f');
         russianToLatinMap.put('б', ',');
         russianToLatinMap.put('в', 'd');
@@ -700,17 +1158,21 @@ class PasswordCracker {
         russianToLatinMap.put('э', '\'');
         russianToLatinMap.put('ю', '.');
         russianToLatinMap.put('я', 'z');
+        return russianToLatinMap;
     }
 
-    private void loadDictionary() {
+    // Словарь берется из бинарного кэша (см. DictionaryCache), который
+    // пересобирается автоматически при изменении исходного файла.
+    private void loadDictionary(Path dictionaryFile, Path cacheFile) {
         try {
-            dictionary = Files.readAllLines(Paths.get("russian_dictionary.txt"));
+            dictionary = DictionaryCache.open(dictionaryFile, cacheFile, PasswordCracker::convertRussianToLatin);
         } catch (IOException e) {
-            dictionary = new ArrayList<>();
+            List<String> words = new ArrayList<>();
             // Базовый словарь, если файл не найден
-            Collections.addAll(dictionary,
+            Collections.addAll(words,
                     "пароль", "логин", "админ", "секрет", "доступ",
                     "пользователь", "система", "безопасность", "код", "привет");
+            dictionary = DictionaryCache.fromWords(words, PasswordCracker::convertRussianToLatin);
         }
     }
 
@@ -720,29 +1182,36 @@ class PasswordCracker {
             return "Пользователь не найден";
         }
 
-        long startTime = System.currentTimeMillis();
+        AttackJob job = AttackJob.start("Словарь", username);
+        long startTime = System.nanoTime();
         int attempts = 0;
+        String foundPassword = null;
 
-        for (String word : dictionary) {
-            String password = convertRussianToLatin(word);
-            attempts++;
+        try {
+            // Слова, не проходящие по длине под ограничения пользователя, пропускаем целыми корзинами
+            int from = dictionary.firstIndexOfLength(minCandidateLength(user));
+            int to = dictionary.endIndexOfLength(maxCandidateLength(user));
+            for (int i = from; i < to; i++) {
+                String password = dictionary.get(i);
+                attempts++;
+
+                if (user.login(password)) {
+                    foundPassword = password;
+                    break;
+                }
 
-            if (user.login(password)) {
-                long endTime = System.currentTimeMillis();
-                double speed = attempts / ((endTime - startTime) / 1000.0);
-                return String.format(
-                        "Пароль найден: %s\nПопыток: %d\nВремя: %.2f сек\nСкорость: %.2f попыток/сек",
-                        password, attempts, (endTime - startTime) / 1000.0, speed
-                );
+                if (attempts % AttackJob.PROGRESS_INTERVAL == 0) {
+                    job.progress(attempts);
+                    if (job.isCancelled()) {
+                        break;
+                    }
+                }
             }
+        } finally {
+            job.finish();
         }
-
-        long endTime = System.currentTimeMillis();
-        double speed = attempts / ((endTime - startTime) / 1000.0);
-        return String.format(
-                "Пароль не найден\nПопыток: %d\nВремя: %.2f сек\nСкорость: %.2f попыток/сек",
-                attempts, (endTime - startTime) / 1000.0, speed
-        );
+        return formatResult("attack.dictionary", foundPassword, attempts, System.nanoTime() - startTime,
+                job.isCancelled() ? "отменено" : null);
     }
 
     public String bruteForceAttack(String username, int maxLength) {
@@ -751,128 +1220,239 @@ class PasswordCracker {
             return "Пользователь не найден";
         }
 
-        long startTime = System.currentTimeMillis();
+        AttackJob job = AttackJob.start("Полный перебор", username);
+        long startTime = System.nanoTime();
         int attempts = 0;
         String foundPassword = null;
 
-        for (int length = 1; length <= maxLength; length++) {
-            char[] chars = new char[length];
-            Arrays.fill(chars, 'a');
+        try {
+            for (int length = 1; length <= maxLength; length++) {
+                char[] chars = new char[length];
+                Arrays.fill(chars, 'a');
 
-            while (true) {
-                String password = new String(chars);
-                attempts++;
+                while (true) {
+                    String password = new String(chars);
+                    attempts++;
 
-                if (user.login(password)) {
-                    foundPassword = password;
-                    break;
+                    if (user.login(password)) {
+                        foundPassword = password;
+                        break;
+                    }
+
+                    if (!incrementChars(chars)) {
+                        break;
+                    }
+
+                    if (attempts % AttackJob.PROGRESS_INTERVAL == 0) {
+                        job.progress(attempts);
+                        if (job.isCancelled()) {
+                            break;
+                        }
+                    }
                 }
 
-                if (!incrementChars(chars)) {
+                if (foundPassword != null || job.isCancelled()) {
                     break;
                 }
             }
-
-            if (foundPassword != null) {
-                break;
-            }
-        }
-
-        long endTime = System.currentTimeMillis();
-        double speed = attempts / ((endTime - startTime) / 1000.0);
-
-        if (foundPassword != null) {
-            return String.format(
-                    "Пароль найден: %s\nПопыток: %d\nВремя: %.2f сек\nСкорость: %.2f попыток/сек",
-                    foundPassword, attempts, (endTime - startTime) / 1000.0, speed
-            );
-        } else {
-            return String.format(
-                    "Пароль не найден (макс. длина %d)\nПопыток: %d\nВремя: %.2f сек\nСкорость: %.2f попыток/сек",
-                    maxLength, attempts, (endTime - startTime) / 1000.0, speed
-            );
+        } finally {
+            job.finish();
         }
+        return formatResult("attack.bruteforce", foundPassword, attempts, System.nanoTime() - startTime,
+                job.isCancelled() ? "отменено" : "макс. длина " + maxLength);
     }
 
     public String combinedAttack(String username, int maxLength) {
+        return combinedAttack(username, maxLength, 0, 0);
+    }
+
+    // Комбинированная атака: словарь, словарь с цифрой на конце, перебор по вероятности и полный перебор
+    // выполняются одновременно планировщиком в пределах бюджета (0 - без ограничения).
+    public String combinedAttack(String username, int maxLength, long maxAttempts, long timeLimitMillis) {
         User user = authSystem.findUser(username);
         if (user == null) {
             return "Пользователь не найден";
         }
 
-        long startTime = System.currentTimeMillis();
-        int attempts = 0;
-        String foundPassword = null;
+        int minLength = minCandidateLength(user);
+        int maxWordLength = maxCandidateLength(user);
+        int maxBruteLength = Math.min(maxLength, maxWordLength);
+        List<AttackScheduler.Strategy> strategies = Arrays.asList(
+                new AttackScheduler.Strategy("Словарь", new DictionarySource(minLength, maxWordLength)),
+                new AttackScheduler.Strategy("Словарь + цифра", new DigitSuffixSource(minLength, maxWordLength)),
+                new AttackScheduler.Strategy("Перебор по вероятности", getMarkovModel().enumerator(minLength, maxBruteLength)::next),
+                new AttackScheduler.Strategy("Полный перебор", new BruteForceSource(Math.max(1, minLength), maxBruteLength))
+        );
+
+        AttackJob job = AttackJob.start("Комбинированный метод", username);
+        AttackScheduler.Result result;
+        try {
+            result = scheduler.run(user, strategies, maxAttempts, timeLimitMillis, job);
+        } finally {
+            job.finish();
+        }
+        for (AttackScheduler.Strategy strategy : strategies) {
+            Metrics.histogram("attack.combined." + strategy.getName()).record(strategy.getNanos());
+        }
+        String report = formatResult("attack.combined", result.getPassword(), result.getAttempts(), result.getNanos(),
+                job.isCancelled() ? "отменено"
+                        : result.isBudgetExceeded() ? "исчерпан бюджет" : "макс. длина " + maxLength);
+        if (result.getPassword() != null) {
+            report = report.replaceFirst("\n", "\nСтратегия: " + result.getWinner().getName() + "\n");
+        }
+        return report + "\n\n" + result.describeStrategies();
+    }
 
-        // Сначала пробуем словарные атаки
-        for (String word : dictionary) {
-            String password = convertRussianToLatin(word);
-            attempts++;
+    // Слова словаря подходящей длины.
+    private class DictionarySource implements CandidateSource {
+        private int index;
+        private final int end;
 
-            if (user.login(password)) {
-                foundPassword = password;
-                break;
-            }
+        DictionarySource(int minLength, int maxLength) {
+            this.index = dictionary.firstIndexOfLength(minLength);
+            this.end = dictionary.endIndexOfLength(maxLength);
+        }
 
-            // Пробуем варианты с добавлением цифр
-            for (int i = 0; i < 10; i++) {
-                String numPassword = password + i;
-                attempts++;
+        @Override
+        public String next() {
+            return index < end ? dictionary.get(index++) : null;
+        }
+    }
 
-                if (user.login(numPassword)) {
-                    foundPassword = numPassword;
-                    break;
+    // Слова словаря с добавленной цифрой на конце.
+    private class DigitSuffixSource implements CandidateSource {
+        private int index;
+        private final int end;
+        private String word;
+        private int digit = 10;
+
+        DigitSuffixSource(int minLength, int maxLength) {
+            // Слово с цифрой на конце длиннее на один символ
+            this.index = dictionary.firstIndexOfLength(minLength - 1);
+            this.end = dictionary.endIndexOfLength(maxLength - 1);
+        }
+
+        @Override
+        public String next() {
+            if (digit == 10) {
+                if (index >= end) {
+                    return null;
                 }
+                word = dictionary.get(index++);
+                digit = 0;
             }
+            return word + digit++;
+        }
+    }
 
-            if (foundPassword != null) {
-                break;
+    // Полный перебор строчных латинских букв по возрастанию длины.
+    private class BruteForceSource implements CandidateSource {
+        private final int maxLength;
+        private char[] chars;
+
+        BruteForceSource(int minLength, int maxLength) {
+            this.maxLength = maxLength;
+            if (minLength <= maxLength) {
+                chars = new char[minLength];
+                Arrays.fill(chars, 'a');
             }
         }
 
-        // Если словарная атака не помогла, пробуем полный перебор
-        if (foundPassword == null) {
-            for (int length = 1; length <= maxLength; length++) {
-                char[] chars = new char[length];
-                Arrays.fill(chars, 'a');
+        @Override
+        public String next() {
+            if (chars == null) {
+                return null;
+            }
+            String password = new String(chars);
+            if (!incrementChars(chars)) {
+                if (chars.length < maxLength) {
+                    chars = new char[chars.length + 1];
+                    Arrays.fill(chars, 'a');
+                } else {
+                    chars = null;
+                }
+            }
+            return password;
+        }
+    }
 
-                while (true) {
-                    String password = new String(chars);
-                    attempts++;
+    // Перебор в порядке убывания вероятности по модели переходов символов, обученной на словаре.
+    public String markovAttack(String username, int maxLength) {
+        User user = authSystem.findUser(username);
+        if (user == null) {
+            return "Пользователь не найден";
+        }
 
-                    if (user.login(password)) {
-                        foundPassword = password;
-                        break;
-                    }
+        AttackJob job = AttackJob.start("Перебор по вероятности", username);
+        long startTime = System.nanoTime();
+        int attempts = 0;
+        String foundPassword = null;
 
-                    if (!incrementChars(chars)) {
-                        break;
-                    }
-                }
+        try {
+            MarkovModel.Enumerator candidates = getMarkovModel().enumerator(
+                    minCandidateLength(user), Math.min(maxLength, maxCandidateLength(user)));
+            String password;
+            while ((password = candidates.next()) != null) {
+                attempts++;
 
-                if (foundPassword != null) {
+                if (user.login(password)) {
+                    foundPassword = password;
                     break;
                 }
+
+                if (attempts % AttackJob.PROGRESS_INTERVAL == 0) {
+                    job.progress(attempts);
+                    if (job.isCancelled()) {
+                        break;
+                    }
+                }
             }
+        } finally {
+            job.finish();
+        }
+        return formatResult("attack.markov", foundPassword, attempts, System.nanoTime() - startTime,
+                job.isCancelled() ? "отменено" : "макс. длина " + maxLength);
+    }
+
+    private synchronized MarkovModel getMarkovModel() {
+        if (markovModel == null) {
+            markovModel = MarkovModel.train(dictionary);
         }
+        return markovModel;
+    }
 
-        long endTime = System.currentTimeMillis();
-        double speed = attempts / ((endTime - startTime) / 1000.0);
+    // Отчет о результате атаки с записью длительности в гистограмму фазы metric.
+    // Время измеряется через System.nanoTime, поэтому скорость определена и для мгновенной находки.
+    private String formatResult(String metric, String foundPassword, long attempts, long elapsedNanos, String limit) {
+        Metrics.histogram(metric).record(elapsedNanos);
+        Metrics.ATTACK_ATTEMPTS.add(attempts);
 
+        double seconds = Math.max(1, elapsedNanos) / 1e9;
+        double speed = attempts / seconds;
         if (foundPassword != null) {
             return String.format(
-                    "Пароль найден: %s\nПопыток: %d\nВремя: %.2f сек\nСкорость: %.2f попыток/сек",
-                    foundPassword, attempts, (endTime - startTime) / 1000.0, speed
+                    "Пароль найден: %s\nПопыток: %d\nВремя: %s\nСкорость: %.2f попыток/сек",
+                    foundPassword, attempts, Metrics.formatNanos(elapsedNanos), speed
             );
         } else {
             return String.format(
-                    "Пароль не найден (макс. длина %d)\nПопыток: %d\nВремя: %.2f сек\nСкорость: %.2f попыток/сек",
-                    maxLength, attempts, (endTime - startTime) / 1000.0, speed
+                    "Пароль не найден%s\nПопыток: %d\nВремя: %s\nСкорость: %.2f попыток/сек",
+                    limit != null ? " (" + limit + ")" : "", attempts, Metrics.formatNanos(elapsedNanos), speed
             );
         }
     }
 
-    private String convertRussianToLatin(String russianWord) {
+    // Минимальная длина кандидата: при включенных ограничениях пароль не может быть короче.
+    private int minCandidateLength(User user) {
+        return user.isPasswordRestrictionsEnabled() ? user.getMinPasswordLength() : 0;
+    }
+
+    // Максимальная длина кандидата: при включенных ограничениях пароль не может быть длиннее.
+    private int maxCandidateLength(User user) {
+        return user.isPasswordRestrictionsEnabled() ? user.getMaxPasswordLength() : Integer.MAX_VALUE;
+    }
+
+    static String convertRussianToLatin(String russianWord) {
         StringBuilder result = new StringBuilder();
         for (char c : russianWord.toCharArray()) {
             Character latinChar = russianToLatinMap.get(c);
@@ -0,0 +1,280 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+
+// Класс DictionaryCache хранит словарь в уже подготовленном для атак виде:
+// слова перекодированы, без повторов и отсортированы по длине.
+//
+// Формат файла кэша (big-endian):
+//   int    MAGIC, int FORMAT_VERSION
+//   long   размер исходного файла, long время изменения, long CRC32 содержимого
+//   int    количество слов, int максимальная длина слова
+//   int[]  начало корзины каждой длины 0..maxLength+1 (индексы слов)
+//   int[]  смещения слов в блоке данных (count + 1 значений)
+//   byte[] слова в UTF-8 подряд, без разделителей
+class DictionaryCache {
+    private static final int MAGIC = 0x44435331; // "DCS1"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 8 + 4 + 4;
+
+    private final ByteBuffer buffer;  // Отображенный в память файл или буфер в куче
+    private final int count;          // Количество слов
+    private final int maxLength;      // Максимальная длина слова (в символах)
+    private final int bucketsStart;   // Позиция таблицы корзин
+    private final int offsetsStart;   // Позиция таблицы смещений
+    private final int dataStart;      // Позиция блока данных
+
+    private DictionaryCache(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.count = buffer.getInt(HEADER_SIZE - 8);
+        this.maxLength = buffer.getInt(HEADER_SIZE - 4);
+        this.bucketsStart = HEADER_SIZE;
+        this.offsetsStart = bucketsStart + (maxLength + 2) * 4;
+        this.dataStart = offsetsStart + (count + 1) * 4;
+    }
+
+    // Открывает кэш для исходного словаря, при необходимости пересобирая его.
+    // Кэш считается устаревшим, если у исходного файла изменились размер,
+    // время изменения или (при совпадении размера) контрольная сумма.
+    public static DictionaryCache open(Path source, Path cacheFile, Function<String, String> transcoder) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(source, BasicFileAttributes.class);
+        long size = attributes.size();
+        long modified = attributes.lastModifiedTime().toMillis();
+
+        // Заголовок читается без отображения: устаревший кэш не отображается в память,
+        // иначе (в Windows) его нельзя было бы заменить
+        long[] header = readHeader(cacheFile);
+        if (header != null && header[0] == size) {
+            if (header[1] == modified) {
+                return map(cacheFile);
+            }
+            // Файл мог быть просто "тронут": сверяем содержимое по контрольной сумме
+            if (header[2] == checksum(source)) {
+                try {
+                    restamp(cacheFile, modified);
+                } catch (IOException e) {
+                    // Каталог только для чтения: кэш верен, сумма будет пересчитана при следующем запуске
+                }
+                return map(cacheFile);
+            }
+        }
+
+        ByteBuffer encoded = encodeSource(source, transcoder, size, modified);
+        try {
+            write(encoded.duplicate(), cacheFile);
+            return map(cacheFile);
+        } catch (IOException e) {
+            // Кэш записать нельзя (например, каталог только для чтения) - используем словарь из памяти
+            System.out.println("Не удалось сохранить кэш словаря " + cacheFile + ": " + e.getMessage());
+            return new DictionaryCache(encoded);
+        }
+    }
+
+    // Строит кэш в памяти из списка слов (используется, когда файла словаря нет).
+    public static DictionaryCache fromWords(List<String> words, Function<String, String> transcoder) {
+        return new DictionaryCache(encode(words, transcoder, 0, 0, 0));
+    }
+
+    // Сборка файла кэша: запись во временный файл и атомарная замена.
+    public static void build(Path source, Path cacheFile, Function<String, String> transcoder) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(source, BasicFileAttributes.class);
+        build(source, cacheFile, transcoder, attributes.size(), attributes.lastModifiedTime().toMillis());
+    }
+
+    private static void build(Path source, Path cacheFile, Function<String, String> transcoder,
+                              long size, long modified) throws IOException {
+        write(encodeSource(source, transcoder, size, modified), cacheFile);
+    }
+
+    // Читает и кодирует исходный словарь.
+    private static ByteBuffer encodeSource(Path source, Function<String, String> transcoder,
+                                           long size, long modified) throws IOException {
+        byte[] content = Files.readAllBytes(source);
+        CRC32 crc = new CRC32();
+        crc.update(content, 0, content.length);
+
+        List<String> words = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new ByteArrayInputStream(content), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                words.add(line);
+            }
+        }
+
+        return encode(words, transcoder, size, modified, crc.getValue());
+    }
+
+    // Запись кэша во временный файл и атомарная замена.
+    private static void write(ByteBuffer encoded, Path cacheFile) throws IOException {
+        Path absolute = cacheFile.toAbsolutePath();
+        Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            while (encoded.hasRemaining()) {
+                channel.write(encoded);
+            }
+        }
+        try {
+            Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static ByteBuffer encode(List<String> words, Function<String, String> transcoder,
+                                     long size, long modified, long hash) {
+        // Перекодируем и убираем повторы, сохраняя исходный порядок слов
+        Set<String> unique = new LinkedHashSet<>();
+        for (String word : words) {
+            if (!word.isEmpty()) {
+                unique.add(transcoder.apply(word));
+            }
+        }
+
+        // Устойчивая сортировка по длине: внутри корзины порядок словаря не меняется
+        List<String> sorted = new ArrayList<>(unique);
+        sorted.sort(Comparator.comparingInt(String::length));
+        int maxLength = sorted.isEmpty() ? 0 : sorted.get(sorted.size() - 1).length();
+
+        byte[][] bytes = new byte[sorted.size()][];
+        int dataSize = 0;
+        for (int i = 0; i < sorted.size(); i++) {
+            bytes[i] = sorted.get(i).getBytes(StandardCharsets.UTF_8);
+            dataSize += bytes[i].length;
+        }
+
+        int total = HEADER_SIZE + (maxLength + 2) * 4 + (sorted.size() + 1) * 4 + dataSize;
+        ByteBuffer out = ByteBuffer.allocate(total).order(ByteOrder.BIG_ENDIAN);
+        out.putInt(MAGIC).putInt(FORMAT_VERSION);
+        out.putLong(size).putLong(modified).putLong(hash);
+        out.putInt(sorted.size()).putInt(maxLength);
+
+        // Корзины: bucket[L] - индекс первого слова длины L, bucket[maxLength + 1] = count
+        int index = 0;
+        for (int length = 0; length <= maxLength + 1; length++) {
+            while (index < sorted.size() && sorted.get(index).length() < length) {
+                index++;
+            }
+            out.putInt(index);
+        }
+
+        int offset = 0;
+        for (byte[] word : bytes) {
+            out.putInt(offset);
+            offset += word.length;
+        }
+        out.putInt(offset);
+
+        for (byte[] word : bytes) {
+            out.put(word);
+        }
+        out.flip();
+        return out;
+    }
+
+    // Читает из заголовка кэша {размер, время изменения, CRC32} источника.
+    // Возвращает null, если файла нет или формат не распознан.
+    private static long[] readHeader(Path cacheFile) {
+        try (FileChannel channel = FileChannel.open(cacheFile, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header) > 0) {
+                // Читаем заголовок целиком
+            }
+            if (header.hasRemaining() || header.getInt(0) != MAGIC || header.getInt(4) != FORMAT_VERSION) {
+                return null;
+            }
+            return new long[] {header.getLong(8), header.getLong(16), header.getLong(24)};
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    // Отображает проверенный файл кэша в память.
+    private static DictionaryCache map(Path cacheFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(cacheFile, StandardOpenOption.READ)) {
+            return new DictionaryCache(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    // Обновляет время изменения источника в заголовке, чтобы не считать сумму при каждом запуске.
+    private static void restamp(Path cacheFile, long modified) throws IOException {
+        try (FileChannel channel = FileChannel.open(cacheFile, StandardOpenOption.WRITE)) {
+            ByteBuffer stamp = ByteBuffer.allocate(8).putLong(0, modified);
+            channel.write(stamp, 16);
+        }
+    }
+
+    private static long checksum(Path source) throws IOException {
+        CRC32 crc = new CRC32();
+        byte[] chunk = new byte[64 * 1024];
+        try (InputStream in = Files.newInputStream(source)) {
+            int read;
+            while ((read = in.read(chunk)) > 0) {
+                crc.update(chunk, 0, read);
+            }
+        }
+        return crc.getValue();
+    }
+
+    long sourceSize() {return buffer.getLong(8);}
+    long sourceModified() {return buffer.getLong(16);}
+    long sourceHash() {return buffer.getLong(24);}
+
+    // Количество слов в кэше.
+    public int size() {return count;}
+
+    // Максимальная длина слова в кэше.
+    public int getMaxLength() {return maxLength;}
+
+    // Индекс первого слова длины не меньше length.
+    public int firstIndexOfLength(int length) {
+        if (length <= 0) {
+            return 0;
+        }
+        if (length > maxLength) {
+            return count;
+        }
+        return buffer.getInt(bucketsStart + length * 4);
+    }
+
+    // Индекс, следующий за последним словом длины не больше length.
+    public int endIndexOfLength(int length) {
+        if (length < 0) {
+            return 0;
+        }
+        if (length >= maxLength) {
+            return count;
+        }
+        return firstIndexOfLength(length + 1);
+    }
+
+    // Возвращает слово по индексу. Чтение абсолютное, поэтому метод потокобезопасен.
+    public String get(int index) {
+        int start = buffer.getInt(offsetsStart + index * 4);
+        int end = buffer.getInt(offsetsStart + (index + 1) * 4);
+        byte[] word = new byte[end - start];
+        for (int i = 0; i < word.length; i++) {
+            word[i] = buffer.get(dataStart + start + i);
+        }
+        return new String(word, StandardCharsets.UTF_8);
+    }
+
+    // Сборка кэша заранее: java DictionaryCache [словарь] [файл кэша]
+    public static void main(String[] args) throws IOException {
+        Path source = Paths.get(args.length > 0 ? args[0] : PasswordCracker.DICTIONARY_FILE);
+        Path cacheFile = Paths.get(args.length > 1 ? args[1] : PasswordCracker.DICTIONARY_CACHE_FILE);
+        long start = System.nanoTime();
+        build(source, cacheFile, PasswordCracker::convertRussianToLatin);
+        DictionaryCache cache = map(cacheFile);
+        System.out.println("Кэш словаря собран: " + cacheFile + "\nСлов: " + cache.size()
+                + "\nМакс. длина: " + cache.getMaxLength()
+                + "\nВремя: " + Metrics.formatNanos(System.nanoTime() - start));
+    }
+}
@@ -0,0 +1,320 @@
+import java.util.Arrays;
+
+// Класс MarkovModel - модель переходов между символами (цепь Маркова первого порядка),
+// обученная на словаре. Вероятности хранятся в виде целочисленных "уровней" стоимости
+// cost = round(-log2(p)), поэтому таблицы компактны (byte на переход), а перебор
+// кандидатов идет по возрастанию суммарной стоимости, т.е. от наиболее вероятных к менее вероятным.
+// Кандидат состоит из основы без цифр (цепь Маркова) и цифрового окончания из списка DIGIT_SUFFIXES,
+// поэтому каждый пароль разлагается на основу и окончание единственным образом.
+class MarkovModel {
+    private static final int MAX_COST = 15; // Верхняя граница стоимости одного перехода
+    private static final double SMOOTHING = 0.05; // Добавка к счетчику невстреченного перехода
+
+    // Распространенные латинские основы паролей. В русском словаре (в латинской раскладке) таких
+    // переходов нет, поэтому модель обучается на них вместе со словарем.
+    static final String[] COMMON_WORDS = {
+            "password", "admin", "qwerty", "user", "login", "root", "test", "guest", "welcome",
+            "master", "secret", "letmein", "dragon", "monkey", "iloveyou", "pass", "love", "abc", "aaaaaa"};
+    private static final int COMMON_SHARE_PERCENT = 20; // Доля COMMON_WORDS в обучении
+
+    // Цифровые окончания в порядке убывания частоты; стоимость окончания - 1 + log2(номер + 1).
+    static final String[] DIGIT_SUFFIXES = {
+            "", "1", "123", "12", "1234", "2", "11", "12345", "123456", "1111", "0", "01", "7", "13",
+            "00", "111", "69", "21", "22", "99", "777", "666", "2000", "2024", "2025", "0000", "007"};
+    private static final int DIGITS_ONLY_COST = 6; // Стоимость пустой основы (пароль только из цифр)
+    private static final byte[] SUFFIX_COST = suffixCosts();
+    private static final int MIN_SUFFIX_COST = SUFFIX_COST[0];
+    private static final int MAX_SUFFIX_COST = SUFFIX_COST[SUFFIX_COST.length - 1];
+
+    private final char[] alphabet;     // Символы модели
+    private final int[] charIndex;     // Индекс символа в алфавите (-1, если символа нет)
+    private final byte[] startCost;    // Стоимость первого символа
+    private final byte[] transCost;    // Стоимость перехода [предыдущий * size + следующий]
+    private final byte[] endCost;      // Стоимость завершения пароля после символа
+    private final int minTrans, maxTrans, minEnd, maxEnd, maxStart;
+
+    private MarkovModel(char[] alphabet, byte[] startCost, byte[] transCost, byte[] endCost) {
+        this.alphabet = alphabet;
+        this.startCost = startCost;
+        this.transCost = transCost;
+        this.endCost = endCost;
+        this.charIndex = new int[128];
+        Arrays.fill(charIndex, -1);
+        for (int i = 0; i < alphabet.length; i++) {
+            charIndex[alphabet[i]] = i;
+        }
+        this.minTrans = min(transCost);
+        this.maxTrans = max(transCost);
+        this.minEnd = min(endCost);
+        this.maxEnd = max(endCost);
+        this.maxStart = max(startCost);
+    }
+
+    private static byte[] suffixCosts() {
+        byte[] costs = new byte[DIGIT_SUFFIXES.length];
+        for (int k = 0; k < costs.length; k++) {
+            costs[k] = (byte) (1 + Math.round(Math.log(k + 1) / Math.log(2)));
+        }
+        return costs;
+    }
+
+    // Обучение модели на словаре и COMMON_WORDS. В алфавит основы входят строчные латинские буквы
+    // и все печатные ASCII-символы (кроме цифр), встретившиеся в словаре. Цифровое окончание слова
+    // отбрасывается, слова с цифрами внутри и с другими символами пропускаются.
+    public static MarkovModel train(DictionaryCache dictionary) {
+        boolean[] present = new boolean[128];
+        for (char c = 'a'; c <= 'z'; c++) present[c] = true;
+        for (int i = 0; i < dictionary.size(); i++) {
+            for (char c : dictionary.get(i).toCharArray()) {
+                if (c > ' ' && c < 127 && !isDigit(c)) {
+                    present[c] = true;
+                }
+            }
+        }
+
+        int size = 0;
+        for (boolean p : present) {
+            if (p) size++;
+        }
+        char[] alphabet = new char[size];
+        int[] index = new int[128];
+        for (int c = 0, i = 0; c < 128; c++) {
+            index[c] = present[c] ? i : -1;
+            if (present[c]) alphabet[i++] = (char) c;
+        }
+
+        long[] start = new long[size];
+        long[] trans = new long[size * size];
+        long[] end = new long[size];
+        long trained = 0;
+        for (int i = 0; i < dictionary.size(); i++) {
+            String word = baseOf(dictionary.get(i));
+            if (isTrainable(word, index)) {
+                count(word, 1, index, size, start, trans, end);
+                trained++;
+            }
+        }
+        // Вес общих основ подбирается так, чтобы их доля не зависела от размера словаря
+        long weight = Math.max(1, trained * COMMON_SHARE_PERCENT / (100 - COMMON_SHARE_PERCENT) / COMMON_WORDS.length);
+        for (String word : COMMON_WORDS) {
+            count(word, weight, index, size, start, trans, end);
+        }
+
+        // Переходы из символа: size вариантов продолжения и один вариант завершения
+        byte[] startCost = toCosts(start);
+        byte[] transCost = new byte[size * size];
+        byte[] endCost = new byte[size];
+        for (int prev = 0; prev < size; prev++) {
+            long total = end[prev];
+            for (int next = 0; next < size; next++) {
+                total += trans[prev * size + next];
+            }
+            double smoothedTotal = total + (size + 1) * SMOOTHING;
+            for (int next = 0; next < size; next++) {
+                transCost[prev * size + next] = cost(trans[prev * size + next] + SMOOTHING, smoothedTotal);
+            }
+            endCost[prev] = cost(end[prev] + SMOOTHING, smoothedTotal);
+        }
+        return new MarkovModel(alphabet, startCost, transCost, endCost);
+    }
+
+    private static void count(String word, long weight, int[] index, int size, long[] start, long[] trans, long[] end) {
+        int prev = index[word.charAt(0)];
+        start[prev] += weight;
+        for (int j = 1; j < word.length(); j++) {
+            int next = index[word.charAt(j)];
+            trans[prev * size + next] += weight;
+            prev = next;
+        }
+        end[prev] += weight;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    // Слово без цифрового окончания.
+    private static String baseOf(String word) {
+        int end = word.length();
+        while (end > 0 && isDigit(word.charAt(end - 1))) {
+            end--;
+        }
+        return word.substring(0, end);
+    }
+
+    private static boolean isTrainable(String word, int[] index) {
+        if (word.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            if (c >= 128 || index[c] < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Аддитивное сглаживание: невстреченный символ получает малую, но ненулевую вероятность.
+    private static byte[] toCosts(long[] counts) {
+        double total = counts.length * SMOOTHING;
+        for (long count : counts) {
+            total += count;
+        }
+        byte[] costs = new byte[counts.length];
+        for (int i = 0; i < counts.length; i++) {
+            costs[i] = cost(counts[i] + SMOOTHING, total);
+        }
+        return costs;
+    }
+
+    private static byte cost(double count, double total) {
+        double bits = -Math.log(count / total) / Math.log(2);
+        return (byte) Math.min(MAX_COST, Math.max(0, Math.round(bits)));
+    }
+
+    private static int min(byte[] values) {
+        int result = Integer.MAX_VALUE;
+        for (byte v : values) result = Math.min(result, v);
+        return result;
+    }
+
+    private static int max(byte[] values) {
+        int result = 0;
+        for (byte v : values) result = Math.max(result, v);
+        return result;
+    }
+
+    // Размер алфавита модели.
+    public int getAlphabetSize() {return alphabet.length;}
+
+    // Стоимость пароля в модели (сумма уровней основы и окончания), либо -1, если пароль
+    // не порождается моделью (символы вне алфавита, цифры внутри, окончание не из списка).
+    public int cost(String password) {
+        String base = baseOf(password);
+        int suffix = Arrays.asList(DIGIT_SUFFIXES).indexOf(password.substring(base.length()));
+        if (password.isEmpty() || suffix < 0) {
+            return -1;
+        }
+        if (base.isEmpty()) {
+            return DIGITS_ONLY_COST + SUFFIX_COST[suffix];
+        }
+        int total = 0;
+        int prev = -1;
+        for (int i = 0; i < base.length(); i++) {
+            char c = base.charAt(i);
+            int next = c < 128 ? charIndex[c] : -1;
+            if (next < 0) {
+                return -1;
+            }
+            total += prev < 0 ? startCost[next] : transCost[prev * alphabet.length + next];
+            prev = next;
+        }
+        return total + endCost[prev] + SUFFIX_COST[suffix];
+    }
+
+    // Создает перебор кандидатов длиной от minLength до maxLength в порядке возрастания стоимости.
+    // Если minLength > maxLength, перебор сразу пуст.
+    public Enumerator enumerator(int minLength, int maxLength) {
+        return new Enumerator(Math.max(1, minLength), maxLength);
+    }
+
+    // Перебор кандидатов по уровням стоимости. На каждом уровне выполняется обход в глубину дерева
+    // основ с отсечением по границам оставшейся стоимости, поэтому память ограничена O(maxLength),
+    // а каждый пароль выдается ровно один раз - на уровне, равном его стоимости. В каждом узле
+    // (включая корень - пустую основу) проверяются все цифровые окончания.
+    class Enumerator {
+        private final int minLength;
+        private final int maxLength;
+        private final int maxLevel;
+        private final int[] idx;   // Индексы символов текущей основы
+        private final int[] acc;   // Накопленная стоимость основы до позиции включительно
+        private final char[] chars;
+        private int depth = -1;    // Последняя позиция основы; -1 - пустая основа
+        private int suffix;        // Следующее окончание для проверки в текущем узле
+        private int level;
+
+        private Enumerator(int minLength, int maxLength) {
+            this.minLength = minLength;
+            this.maxLength = Math.max(0, maxLength);
+            this.maxLevel = Math.max(DIGITS_ONLY_COST, maxStart + Math.max(0, this.maxLength - 1) * maxTrans + maxEnd)
+                    + MAX_SUFFIX_COST;
+            this.idx = new int[this.maxLength];
+            this.acc = new int[this.maxLength];
+            this.chars = new char[this.maxLength];
+            // Без подходящих длин перебор пуст сразу, а не после обхода всех уровней
+            this.level = this.maxLength > 0 && minLength <= this.maxLength ? 0 : maxLevel + 1;
+        }
+
+        // Текущий уровень стоимости перебора.
+        public int getLevel() {return level;}
+
+        // Следующий кандидат или null, если перебор завершен.
+        public String next() {
+            while (level <= maxLevel) {
+                while (suffix < DIGIT_SUFFIXES.length) {
+                    String candidate = candidate(suffix++);
+                    if (candidate != null) {
+                        return candidate;
+                    }
+                }
+                if (!advance()) {
+                    return null;
+                }
+                suffix = 0;
+            }
+            return null;
+        }
+
+        // Текущая основа с окончанием k, если их длина и стоимость подходят для уровня.
+        private String candidate(int k) {
+            String digits = DIGIT_SUFFIXES[k];
+            int length = depth + 1 + digits.length();
+            if (length < minLength || length > maxLength) {
+                return null;
+            }
+            int cost = (depth < 0 ? DIGITS_ONLY_COST : acc[depth] + endCost[idx[depth]]) + SUFFIX_COST[k];
+            if (cost != level) {
+                return null;
+            }
+            return depth < 0 ? digits : new String(chars, 0, depth + 1).concat(digits);
+        }
+
+        // Переход к следующему узлу дерева основ в прямом порядке обхода.
+        // После обхода всего дерева начинается следующий уровень с корня.
+        private boolean advance() {
+            if (depth < 0 || (depth + 1 < maxLength && acc[depth] + minTrans + minEnd + MIN_SUFFIX_COST <= level)) {
+                depth++;
+                idx[depth] = -1;
+            }
+            while (true) {
+                if (nextSibling()) {
+                    return true;
+                }
+                depth--;
+                if (depth < 0) {
+                    level++;
+                    return level <= maxLevel;
+                }
+            }
+        }
+
+        private boolean nextSibling() {
+            int size = alphabet.length;
+            int remaining = maxLength - 1 - depth;
+            for (int c = idx[depth] + 1; c < size; c++) {
+                int cost = depth == 0 ? startCost[c] : acc[depth - 1] + transCost[idx[depth - 1] * size + c];
+                if (cost + minEnd + MIN_SUFFIX_COST > level
+                        || cost + remaining * maxTrans + maxEnd + MAX_SUFFIX_COST < level) {
+                    continue;
+                }
+                idx[depth] = c;
+                acc[depth] = cost;
+                chars[depth] = alphabet[c];
+                return true;
+            }
+            idx[depth] = size;
+            return false;
+        }
+    }
+}
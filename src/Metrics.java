@@ -0,0 +1,164 @@
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Класс Metrics - реестр счетчиков и гистограмм задержек. Все измерения времени
+// выполняются через System.nanoTime, счетчики построены на LongAdder (распределены
+// по ячейкам между потоками), поэтому запись почти не мешает горячим путям.
+class Metrics {
+    private static final Map<String, Counter> COUNTERS = new ConcurrentSkipListMap<>();
+    private static final Map<String, Histogram> HISTOGRAMS = new ConcurrentSkipListMap<>();
+
+    static final Counter LOGIN_SUCCESS = counter("login.success");
+    static final Counter LOGIN_FAILURE = counter("login.failure");
+    static final Histogram LOGIN_LATENCY = histogram("login.latency");
+    static final Histogram USERS_LOAD = histogram("users.load");
+    static final Histogram USERS_SAVE = histogram("users.save");
+    static final Histogram USERS_RELOAD = histogram("users.reload");
+    static final Counter USERS_RELOAD_PARSED = counter("users.reload.parsed");
+    static final Histogram ANALYZER = histogram("analyzer.analyze");
+    static final Counter ATTACK_ATTEMPTS = counter("attack.attempts");
+    // Время от запуска до появления окна, загрузки пользователей и загрузки словаря
+    static final Histogram STARTUP_WINDOW = histogram("startup.window");
+    static final Histogram STARTUP_USERS = histogram("startup.users");
+    static final Histogram STARTUP_CRACKER = histogram("startup.cracker");
+
+    private Metrics() {
+    }
+
+    // Возвращает счетчик с указанным именем, создавая его при первом обращении.
+    static Counter counter(String name) {
+        return COUNTERS.computeIfAbsent(name, key -> new Counter());
+    }
+
+    // Возвращает гистограмму с указанным именем, создавая ее при первом обращении.
+    static Histogram histogram(String name) {
+        return HISTOGRAMS.computeIfAbsent(name, key -> new Histogram());
+    }
+
+    // Текстовый снимок всех метрик.
+    static String snapshot() {
+        return snapshot("");
+    }
+
+    // Текстовый снимок метрик, имена которых начинаются с prefix.
+    static String snapshot(String prefix) {
+        StringBuilder report = new StringBuilder();
+        for (Map.Entry<String, Counter> entry : COUNTERS.entrySet()) {
+            if (entry.getKey().startsWith(prefix)) {
+                report.append(String.format("%-32s %d%n", entry.getKey(), entry.getValue().get()));
+            }
+        }
+        for (Map.Entry<String, Histogram> entry : HISTOGRAMS.entrySet()) {
+            if (entry.getKey().startsWith(prefix) && entry.getValue().getCount() > 0) {
+                report.append(String.format("%-32s %s%n", entry.getKey(), entry.getValue()));
+            }
+        }
+        return report.toString();
+    }
+
+    // Форматирует длительность в наносекундах в удобных единицах.
+    static String formatNanos(long nanos) {
+        if (nanos < 1_000) {
+            return nanos + " нс";
+        } else if (nanos < 1_000_000) {
+            return String.format("%.1f мкс", nanos / 1e3);
+        } else if (nanos < 1_000_000_000) {
+            return String.format("%.1f мс", nanos / 1e6);
+        }
+        return String.format("%.2f с", nanos / 1e9);
+    }
+
+    // Счетчик событий.
+    static class Counter {
+        private final LongAdder adder = new LongAdder();
+
+        void increment() {adder.increment();}
+        void add(long value) {adder.add(value);}
+        long get() {return adder.sum();}
+    }
+
+    // Гистограмма задержек с фиксированными корзинами: каждая степень двойки делится
+    // на 4 корзины, поэтому относительная погрешность процентилей не превышает 25%.
+    static class Histogram {
+        private static final int BUCKETS = 248;
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        // Запись длительности с момента start (значение System.nanoTime).
+        void recordSince(long start) {
+            record(System.nanoTime() - start);
+        }
+
+        void record(long nanos) {
+            long value = Math.max(0, nanos);
+            buckets.incrementAndGet(bucketOf(value));
+            count.increment();
+            sum.add(value);
+            max.accumulate(value);
+        }
+
+        long getCount() {return count.sum();}
+        long getMax() {return max.get();}
+
+        long getMean() {
+            long n = count.sum();
+            return n > 0 ? sum.sum() / n : 0;
+        }
+
+        // Значение процентиля (0..100) в наносекундах - верхняя граница соответствующей корзины.
+        long getPercentile(double percentile) {
+            long total = 0;
+            long[] snapshot = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                snapshot[i] = buckets.get(i);
+                total += snapshot[i];
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(total * percentile / 100.0);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += snapshot[i];
+                if (seen >= Math.max(1, rank)) {
+                    return Math.min(upperBound(i), getMax());
+                }
+            }
+            return getMax();
+        }
+
+        private static int bucketOf(long value) {
+            if (value < 4) {
+                return (int) value;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            int sub = (int) ((value >>> (exponent - 2)) & 3);
+            return (exponent - 1) * 4 + sub;
+        }
+
+        private static long upperBound(int bucket) {
+            if (bucket < 4) {
+                return bucket;
+            }
+            int exponent = bucket / 4 + 1;
+            if (exponent >= 62) {
+                return Long.MAX_VALUE;
+            }
+            long sub = bucket % 4;
+            return ((4 + sub + 1) << (exponent - 2)) - 1;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("n=%d p50=%s p90=%s p99=%s max=%s",
+                    getCount(), formatNanos(getPercentile(50)), formatNanos(getPercentile(90)),
+                    formatNanos(getPercentile(99)), formatNanos(getMax()));
+        }
+    }
+}
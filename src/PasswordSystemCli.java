@@ -0,0 +1,220 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+// Класс PasswordSystemCli - точка входа командной строки для пакетных заданий.
+// Не использует javax.swing/java.awt и загружает только те подсистемы, которые нужны
+// команде: анализатору не нужны пользователи, аудиту - словарь, и т.д.
+public class PasswordSystemCli {
+    private static final String DEFAULT_USERS_FILE = "users.txt";
+
+    private static final String USAGE = String.join("\n",
+            "Использование: java -cp <jar> PasswordSystemCli <команда> [аргументы]",
+            "",
+            "Команды:",
+            "  analyze <пароль|-> [скорость] [попыток перед паузой] [пауза, сек]",
+            "                         анализ стойкости; '-' - пароли построчно из стандартного ввода;",
+            "                         скорость по умолчанию - результат calibrate (или 1000)",
+            "  calibrate              измерение скорости проверки паролей на этом компьютере",
+            "  audit [файл]           проверка учетных записей (по умолчанию users.txt)",
+            "  export <csv> [файл]    выгрузка пользователей в csv",
+            "  import <csv> [файл]    загрузка пользователей из csv (существующие заменяются)",
+            "  crack-demo <пользователь> <dictionary|bruteforce|combined|markov> [макс. длина] [файл]",
+            "             [макс. попыток] [время, сек]",
+            "                         демонстрация подбора пароля; бюджет (0 - без ограничения)",
+            "                         действует для метода combined");
+
+    public static void main(String[] args) {
+        int status;
+        try {
+            status = run(args, System.out);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Ошибка: " + e.getMessage());
+            System.err.println(USAGE);
+            status = 1;
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Ошибка ввода-вывода: " + e.getMessage());
+            status = 2;
+        }
+        System.out.flush();
+        System.exit(status);
+    }
+
+    static int run(String[] args, PrintStream out) throws IOException {
+        if (args.length == 0) {
+            throw new IllegalArgumentException("не указана команда");
+        }
+        switch (args[0]) {
+            case "analyze":
+                return analyze(args, out);
+            case "calibrate":
+                out.println("Скорость перебора: " + Math.round(SpeedCalibrator.recalibrate()) + " попыток/сек ("
+                        + Runtime.getRuntime().availableProcessors() + " потоков)");
+                return 0;
+            case "audit":
+                return audit(argument(args, 1, DEFAULT_USERS_FILE), out);
+            case "export":
+                return exportUsers(required(args, 1, "файл csv"), argument(args, 2, DEFAULT_USERS_FILE), out);
+            case "import":
+                return importUsers(required(args, 1, "файл csv"), argument(args, 2, DEFAULT_USERS_FILE), out);
+            case "crack-demo":
+                return crackDemo(args, out);
+            case "help":
+            case "--help":
+                out.println(USAGE);
+                return 0;
+            default:
+                throw new IllegalArgumentException("неизвестная команда " + args[0]);
+        }
+    }
+
+    private static int analyze(String[] args, PrintStream out) throws IOException {
+        String password = required(args, 1, "пароль");
+        // Без явной скорости берется сохраненный результат калибровки: измерять при каждом
+        // запуске командной строки слишком долго. Кэш читается, только если скорость не задана.
+        double speed;
+        if (args.length > 2) {
+            speed = number(args[2]);
+        } else {
+            speed = SpeedCalibrator.defaultAttemptsPerSecond();
+        }
+        int attempts = (int) number(argument(args, 3, "10"));
+        double pause = number(argument(args, 4, "5"));
+
+        PasswordStrengthAnalyzer analyzer = new PasswordStrengthAnalyzer();
+        if (!password.equals("-")) {
+            out.println(analyzer.analyzePassword(password, speed, attempts, pause));
+            return 0;
+        }
+
+        // Пакетный режим: отчеты разделяются пустой строкой
+        BufferedReader reader = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (!line.isEmpty()) {
+                out.println(analyzer.analyzePassword(line, speed, attempts, pause));
+                out.println();
+            }
+        }
+        return 0;
+    }
+
+    // Аудит: заблокированные пользователи, пустые пароли и пароли, нарушающие ограничения.
+    // Код возврата 3 означает, что найдены проблемы.
+    private static int audit(String usersFile, PrintStream out) {
+        AuthenticationSystem authSystem = openUsers(usersFile);
+        int problems = 0;
+        int blocked = 0;
+        for (User user : authSystem.getUsers()) {
+            if (user.isBlocked()) {
+                blocked++;
+            }
+            if (user.getPassword().isEmpty()) {
+                out.println(user.getUsername() + ": пустой пароль");
+                problems++;
+            } else if (user.isPasswordRestrictionsEnabled() && !user.isPasswordValid(user.getPassword())) {
+                out.println(user.getUsername() + ": пароль не соответствует ограничениям");
+                problems++;
+            }
+        }
+        out.println("Пользователей: " + authSystem.getUsers().size()
+                + ", заблокировано: " + blocked + ", проблем: " + problems);
+        return problems > 0 ? 3 : 0;
+    }
+
+    private static int exportUsers(String csvFile, String usersFile, PrintStream out) throws IOException {
+        AuthenticationSystem authSystem = openUsers(usersFile);
+        try (BufferedWriter writer = Files.newBufferedWriter(Paths.get(csvFile), StandardCharsets.UTF_8)) {
+            for (User user : authSystem.getUsers()) {
+                writer.write(AuthenticationSystem.formatUser(user));
+                writer.newLine();
+            }
+        }
+        out.println("Выгружено пользователей: " + authSystem.getUsers().size());
+        return 0;
+    }
+
+    private static int importUsers(String csvFile, String usersFile, PrintStream out) throws IOException {
+        List<String> lines = Files.readAllLines(Paths.get(csvFile), StandardCharsets.UTF_8);
+        AuthenticationSystem authSystem = openUsers(usersFile);
+        int imported = 0;
+        for (String line : lines) {
+            if (line.isEmpty()) {
+                continue;
+            }
+            try {
+                authSystem.putUser(AuthenticationSystem.parseUser(line));
+                imported++;
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("некорректная строка в " + csvFile + ": " + line);
+            }
+        }
+        authSystem.saveUsers();
+        out.println("Загружено пользователей: " + imported);
+        return 0;
+    }
+
+    private static int crackDemo(String[] args, PrintStream out) {
+        String username = required(args, 1, "пользователь");
+        String method = required(args, 2, "метод");
+        int maxLength = (int) number(argument(args, 3, "6"));
+        AuthenticationSystem authSystem = openUsers(argument(args, 4, DEFAULT_USERS_FILE));
+        long maxAttempts = (long) number(argument(args, 5, "0"));
+        long timeLimitMillis = (long) (number(argument(args, 6, "0")) * 1000);
+        if (!Arrays.asList("dictionary", "bruteforce", "combined", "markov").contains(method)) {
+            throw new IllegalArgumentException("неизвестный метод " + method);
+        }
+
+        // Подбор может идти долго: как и в графическом интерфейсе, его можно наблюдать
+        // и отменить через jconsole (остальные команды MBean-ы не регистрируют)
+        SystemMonitor.register(authSystem);
+        PasswordCracker cracker = new PasswordCracker(authSystem);
+        switch (method) {
+            case "dictionary":
+                out.println(cracker.dictionaryAttack(username));
+                break;
+            case "bruteforce":
+                out.println(cracker.bruteForceAttack(username, maxLength));
+                break;
+            case "combined":
+                out.println(cracker.combinedAttack(username, maxLength, maxAttempts, timeLimitMillis));
+                break;
+            default:
+                out.println(cracker.markovAttack(username, maxLength));
+                break;
+        }
+        return 0;
+    }
+
+    // Пользователи из файла. Администратор по умолчанию не создается: audit, export и crack-demo
+    // не должны изменять файл (а чтение не создает и файл блокировки users.txt.lock),
+    // import записывает только загруженных пользователей.
+    private static AuthenticationSystem openUsers(String usersFile) {
+        if (!Files.exists(Paths.get(usersFile))) {
+            throw new UncheckedIOException(new FileNotFoundException(usersFile));
+        }
+        return new AuthenticationSystem(usersFile, false);
+    }
+
+    private static String argument(String[] args, int index, String defaultValue) {
+        return args.length > index ? args[index] : defaultValue;
+    }
+
+    private static String required(String[] args, int index, String name) {
+        if (args.length <= index) {
+            throw new IllegalArgumentException("не указан аргумент: " + name);
+        }
+        return args[index];
+    }
+
+    private static double number(String value) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("ожидалось число: " + value);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+// Интерфейс управления системой паролей: пользователи, входы, хранение и анализатор.
+// Доступен через jconsole/VisualVM как CombinedPasswordSystem:type=PasswordSystem.
+public interface PasswordSystemMXBean {
+    int getUserCount();
+    int getBlockedUserCount();
+
+    // Только входы пользователей через интерфейс; попытки атак учитываются в AttackMonitorMXBean
+    long getLoginSuccessCount();
+    long getLoginFailureCount();
+    double getLoginSuccessPerSecond();
+    double getLoginFailurePerSecond();
+
+    long getSaveCount();
+    double getSaveLatencyP50Millis();
+    double getSaveLatencyP99Millis();
+    double getLoadLatencyMaxMillis();
+
+    long getAnalyzerCount();
+    double getAnalyzerPerSecond();
+    double getAnalyzerLatencyP99Millis();
+}
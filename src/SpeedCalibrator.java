@@ -0,0 +1,195 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Класс SpeedCalibrator измеряет, сколько паролей в секунду этот компьютер реально проверяет
+// тем же путем, что и PasswordCracker (генерация кандидата + User.login), на всех ядрах.
+// Результат сохраняется в ~/.deep-secure/calibration.properties отдельно для каждой пары
+// компьютер/JVM и используется как скорость перебора по умолчанию в анализаторе.
+// Пароли хранятся в открытом виде, поэтому измеряется только сравнение строк. User.login не
+// инструментирован (метрики login.* ведет CombinedPasswordSystem.verifyLogin), поэтому калибровка
+// измеряет чистую проверку и не попадает в метрики входа.
+class SpeedCalibrator {
+    static final double FALLBACK_ATTEMPTS_PER_SECOND = 1000; // Если измерение недоступно
+
+    private static final long WARMUP_NANOS = 300_000_000L;  // Прогрев, чтобы JIT скомпилировал цикл
+    private static final long MEASURE_NANOS = 700_000_000L; // Длительность измерения
+    private static final int CHECK_INTERVAL = 1024;         // Попыток между проверками времени
+    private static final String TARGET_PASSWORD = "zzzzzzzz"; // Не находится за время измерения
+
+    private static final Path CACHE_FILE = Paths.get(System.getProperty("user.home"), ".deep-secure", "calibration.properties");
+
+    private static volatile double attemptsPerSecond; // 0, пока не измерено и не загружено
+    private static volatile boolean cacheLoaded;       // Файл результатов уже прочитан
+    private static String hostKey;                     // Вычисляется один раз (см. hostKey())
+
+    private SpeedCalibrator() {
+    }
+
+    // Скорость перебора, попыток/сек. При первом вызове на этом компьютере/JVM выполняется
+    // измерение (около секунды), затем значение берется из кэша.
+    static synchronized double attemptsPerSecond() {
+        double cached = cachedAttemptsPerSecond();
+        if (cached > 0) {
+            return cached;
+        }
+        return recalibrate();
+    }
+
+    // Скорость перебора по умолчанию: сохраненный результат калибровки или FALLBACK_ATTEMPTS_PER_SECOND.
+    // Не выполняет измерение, поэтому подходит для потока интерфейса и командной строки.
+    static double defaultAttemptsPerSecond() {
+        double cached = cachedAttemptsPerSecond();
+        return cached > 0 ? cached : FALLBACK_ATTEMPTS_PER_SECOND;
+    }
+
+    // Сохраненная скорость перебора или 0, если измерения еще не было. Не выполняет измерение.
+    // Файл читается один раз за запуск; результат calibrate из другого процесса виден после перезапуска.
+    static double cachedAttemptsPerSecond() {
+        if (!cacheLoaded) {
+            synchronized (SpeedCalibrator.class) {
+                if (!cacheLoaded) {
+                    if (attemptsPerSecond == 0) {
+                        try {
+                            attemptsPerSecond = Double.parseDouble(loadCache().getProperty(hostKey(), "0"));
+                        } catch (NumberFormatException e) {
+                            attemptsPerSecond = 0;
+                        }
+                    }
+                    cacheLoaded = true;
+                }
+            }
+        }
+        return attemptsPerSecond;
+    }
+
+    // Повторное измерение с сохранением результата.
+    static synchronized double recalibrate() {
+        double measured = measure(Runtime.getRuntime().availableProcessors());
+        attemptsPerSecond = measured;
+        Properties properties = loadCache();
+        properties.setProperty(hostKey(), String.valueOf(Math.round(measured)));
+        try {
+            Files.createDirectories(CACHE_FILE.getParent());
+            try (OutputStream out = Files.newOutputStream(CACHE_FILE)) {
+                properties.store(out, "Measured password verification speed, attempts/sec");
+            }
+        } catch (IOException e) {
+            System.out.println("Не удалось сохранить результат калибровки: " + e.getMessage());
+        }
+        return measured;
+    }
+
+    // Измерение на threads потоках. Все потоки стартуют одновременно, каждый проверяет
+    // свой диапазон кандидатов против своего пользователя; скорости потоков суммируются.
+    static double measure(int threads) {
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicLong attempts = new AtomicLong();
+        AtomicLong nanos = new AtomicLong();
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            char first = (char) ('a' + i % 26);
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                long[] result = run(first);
+                attempts.addAndGet(result[0]);
+                nanos.addAndGet(result[1]);
+            }, "speed-calibrator-" + (i + 1));
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return FALLBACK_ATTEMPTS_PER_SECOND;
+            }
+        }
+        // Сумма скоростей потоков: попытки / среднее время потока
+        return attempts.get() / (nanos.get() / (double) threads / 1e9);
+    }
+
+    // Цикл перебора одного потока: {попыток, наносекунд} за время измерения (без прогрева).
+    private static long[] run(char first) {
+        User user = new User("calibration", TARGET_PASSWORD);
+        char[] chars = {first, 'a', 'a', 'a', 'a', 'a'};
+        long measureStart = System.nanoTime() + WARMUP_NANOS;
+        long measureEnd = measureStart + MEASURE_NANOS;
+        long measuredAttempts = 0;
+        long now;
+        boolean found = false;
+        while ((now = System.nanoTime()) < measureEnd) {
+            for (int i = 0; i < CHECK_INTERVAL; i++) {
+                found |= user.login(new String(chars));
+                increment(chars);
+            }
+            if (now >= measureStart) {
+                measuredAttempts += CHECK_INTERVAL;
+            }
+        }
+        if (found) {
+            throw new IllegalStateException("Калибровка: неожиданно найден пароль");
+        }
+        return new long[] {measuredAttempts, now - Math.min(now, measureStart)};
+    }
+
+    // Следующий кандидат из a-z (как в полном переборе), с переходом через конец алфавита.
+    private static void increment(char[] chars) {
+        for (int i = chars.length - 1; i >= 0; i--) {
+            if (chars[i] < 'z') {
+                chars[i]++;
+                return;
+            }
+            chars[i] = 'a';
+        }
+    }
+
+    // Ключ кэша: компьютер, JVM и число процессоров - при смене любого из них скорость другая.
+    // Имя компьютера берется только из InetAddress (переменная HOSTNAME экспортируется не во всех
+    // оболочках, и интерфейс с командной строкой получали бы разные ключи); поиск имени может
+    // обращаться к DNS, поэтому ключ вычисляется один раз за запуск.
+    static synchronized String hostKey() {
+        if (hostKey == null) {
+            hostKey = hostName() + "/" + System.getProperty("java.vm.vendor") + "/" + System.getProperty("java.vm.version")
+                    + "/" + System.getProperty("os.arch") + "/" + Runtime.getRuntime().availableProcessors();
+        }
+        return hostKey;
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (IOException e) {
+            return "localhost";
+        }
+    }
+
+    private static Properties loadCache() {
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(CACHE_FILE)) {
+            properties.load(in);
+        } catch (NoSuchFileException e) {
+            // Калибровка еще не выполнялась
+        } catch (IOException e) {
+            System.out.println("Не удалось прочитать результат калибровки: " + e.getMessage());
+        }
+        return properties;
+    }
+}
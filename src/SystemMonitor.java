@@ -0,0 +1,131 @@
+import javax.management.*;
+import java.lang.management.ManagementFactory;
+
+// Класс SystemMonitor регистрирует MXBean-ы системы на платформенном MBean-сервере.
+// Значения вычисляются только при обращении из jconsole/VisualVM, поэтому без
+// подключенного клиента накладных расходов нет.
+class SystemMonitor {
+    static final String PASSWORD_SYSTEM_NAME = "CombinedPasswordSystem:type=PasswordSystem";
+    static final String ATTACKS_NAME = "CombinedPasswordSystem:type=Attacks";
+
+    private SystemMonitor() {
+    }
+
+    // Регистрация MXBean-ов. Ошибки регистрации не мешают работе приложения.
+    static void register(AuthenticationSystem authSystem) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            registerBean(server, new PasswordSystemMonitor(authSystem), PASSWORD_SYSTEM_NAME);
+            registerBean(server, new AttackMonitor(), ATTACKS_NAME);
+        } catch (JMException e) {
+            System.out.println("Не удалось зарегистрировать MBean: " + e.getMessage());
+        }
+    }
+
+    private static void registerBean(MBeanServer server, Object bean, String name) throws JMException {
+        ObjectName objectName = new ObjectName(name);
+        if (server.isRegistered(objectName)) {
+            server.unregisterMBean(objectName);
+        }
+        server.registerMBean(bean, objectName);
+    }
+
+    // Скорость изменения счетчика между двумя последовательными опросами.
+    static class RateMeter {
+        private long lastValue;
+        private long lastTime = System.nanoTime();
+
+        synchronized double rate(long value) {
+            long now = System.nanoTime();
+            double seconds = Math.max(1, now - lastTime) / 1e9;
+            double rate = (value - lastValue) / seconds;
+            lastValue = value;
+            lastTime = now;
+            return rate;
+        }
+    }
+}
+
+class PasswordSystemMonitor implements PasswordSystemMXBean {
+    private final AuthenticationSystem authSystem;
+    private final SystemMonitor.RateMeter loginSuccessRate = new SystemMonitor.RateMeter();
+    private final SystemMonitor.RateMeter loginFailureRate = new SystemMonitor.RateMeter();
+    private final SystemMonitor.RateMeter analyzerRate = new SystemMonitor.RateMeter();
+
+    PasswordSystemMonitor(AuthenticationSystem authSystem) {
+        this.authSystem = authSystem;
+    }
+
+    @Override
+    public int getUserCount() {return authSystem.getUsers().size();}
+
+    @Override
+    public int getBlockedUserCount() {
+        int count = 0;
+        for (User user : authSystem.getUsers()) {
+            if (user.isBlocked()) count++;
+        }
+        return count;
+    }
+
+    @Override
+    public long getLoginSuccessCount() {return Metrics.LOGIN_SUCCESS.get();}
+
+    @Override
+    public long getLoginFailureCount() {return Metrics.LOGIN_FAILURE.get();}
+
+    @Override
+    public double getLoginSuccessPerSecond() {return loginSuccessRate.rate(Metrics.LOGIN_SUCCESS.get());}
+
+    @Override
+    public double getLoginFailurePerSecond() {return loginFailureRate.rate(Metrics.LOGIN_FAILURE.get());}
+
+    @Override
+    public long getSaveCount() {return Metrics.USERS_SAVE.getCount();}
+
+    @Override
+    public double getSaveLatencyP50Millis() {return Metrics.USERS_SAVE.getPercentile(50) / 1e6;}
+
+    @Override
+    public double getSaveLatencyP99Millis() {return Metrics.USERS_SAVE.getPercentile(99) / 1e6;}
+
+    @Override
+    public double getLoadLatencyMaxMillis() {return Metrics.USERS_LOAD.getMax() / 1e6;}
+
+    @Override
+    public long getAnalyzerCount() {return Metrics.ANALYZER.getCount();}
+
+    @Override
+    public double getAnalyzerPerSecond() {return analyzerRate.rate(Metrics.ANALYZER.getCount());}
+
+    @Override
+    public double getAnalyzerLatencyP99Millis() {return Metrics.ANALYZER.getPercentile(99) / 1e6;}
+}
+
+class AttackMonitor implements AttackMonitorMXBean {
+    @Override
+    public int getActiveJobCount() {return AttackJob.active().size();}
+
+    @Override
+    public String[] getActiveJobs() {
+        return AttackJob.active().stream().map(AttackJob::toString).toArray(String[]::new);
+    }
+
+    @Override
+    public double getAttemptsPerSecond() {
+        double total = 0;
+        for (AttackJob job : AttackJob.active()) {
+            total += job.getAttemptsPerSecond();
+        }
+        return total;
+    }
+
+    @Override
+    public long getTotalAttempts() {return Metrics.ATTACK_ATTEMPTS.get();}
+
+    @Override
+    public boolean cancel(long jobId) {return AttackJob.cancel(jobId);}
+
+    @Override
+    public int cancelAll() {return AttackJob.cancelAll();}
+}
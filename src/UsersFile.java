@@ -0,0 +1,239 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+
+// Класс UsersFile - файл пользователей, общий для нескольких процессов.
+// Запись выполняется под исключительной блокировкой FileChannel на файле-спутнике <файл>.lock,
+// чтение - под разделяемой. В файле-спутнике хранится штамп последней записи: номер версии,
+// время изменения и размер файла. Если штамп совпадает с атрибутами файла и с версией,
+// известной процессу, файл не менялся с последней синхронизации и читать его не нужно.
+// Если же файл только дописан в обход блокировки (тот же файл, он стал длиннее, а прежнее
+// содержимое совпадает по CRC32), разбирается лишь добавленный хвост. Файл записывается во
+// временный и атомарно переименовывается, поэтому читатели никогда не видят его частично записанным.
+class UsersFile {
+    private static final long WATCH_DEBOUNCE_MILLIS = 50; // События за этот интервал объединяются
+
+    // Блокировки FileChannel действуют на процесс целиком, поэтому потоки одного процесса
+    // дополнительно синхронизируются на объекте, общем для файла.
+    private static final Map<Path, Object> PROCESS_LOCKS = new ConcurrentHashMap<>();
+
+    private final Path path;
+    private final Path lockPath;
+    private final Path tempPath;
+    private final Object processLock;
+
+    // Файл при последней синхронизации этого экземпляра (изменяются под processLock)
+    private long syncedSize = -1;     // Размер в байтах; -1 - не синхронизирован
+    private Object syncedKey;         // Идентификатор файла (inode); меняется при замене файла
+    private long syncedCrc;           // CRC32 содержимого
+    private boolean syncedLineEnd;    // Заканчивается ли содержимое переводом строки
+
+    UsersFile(String dataFile) {
+        this.path = Paths.get(dataFile).toAbsolutePath().normalize();
+        this.lockPath = path.resolveSibling(path.getFileName() + ".lock");
+        this.tempPath = path.resolveSibling("." + path.getFileName() + ".tmp");
+        this.processLock = PROCESS_LOCKS.computeIfAbsent(path, key -> new Object());
+    }
+
+    // Состояние файла: версия и строки. lines == null - файл не менялся с известной версии;
+    // appended - строки только дописаны в конец файла после последней синхронизации.
+    static class Snapshot {
+        private final long version;
+        private final List<String> lines;
+        private final boolean exists;
+        private final boolean appended;
+
+        Snapshot(long version, List<String> lines, boolean exists, boolean appended) {
+            this.version = version;
+            this.lines = lines;
+            this.exists = exists;
+            this.appended = appended;
+        }
+
+        public long getVersion() {return version;}
+        public List<String> getLines() {return lines;}
+        public boolean exists() {return exists;}
+        public boolean isAppended() {return appended;}
+    }
+
+    // Чтение изменений файла с версии knownVersion. Файл-спутник при чтении не создается, чтобы
+    // команды, только читающие файл, не изменяли каталог данных. Если его нет (в файл еще не писали
+    // с блокировкой) или он недоступен (каталог только для чтения), файл читается без блокировки:
+    // запись идет через атомарное переименование, поэтому файл виден либо старым, либо новым целиком.
+    Snapshot read(long knownVersion) throws IOException {
+        synchronized (processLock) {
+            FileChannel channel;
+            try {
+                channel = FileChannel.open(lockPath, StandardOpenOption.READ);
+            } catch (FileSystemException e) {
+                return readChanges(new long[] {0, -1, -1}, knownVersion);
+            }
+            try (channel) {
+                channel.lock(0, Long.MAX_VALUE, true);
+                return readChanges(readStamp(channel), knownVersion);
+            }
+        }
+    }
+
+    // Запись файла под исключительной блокировкой. merge получает изменения файла с версии
+    // knownVersion (как read) и возвращает все строки для записи.
+    Snapshot write(long knownVersion, Function<Snapshot, List<String>> merge) throws IOException {
+        synchronized (processLock) {
+            try (FileChannel channel = openLock()) {
+                channel.lock();
+                long[] stamp = readStamp(channel);
+                List<String> lines = merge.apply(readChanges(stamp, knownVersion));
+
+                StringBuilder content = new StringBuilder();
+                for (String line : lines) {
+                    content.append(line).append(System.lineSeparator());
+                }
+                byte[] bytes = content.toString().getBytes(Charset.defaultCharset());
+                Files.write(tempPath, bytes);
+                try {
+                    Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+                }
+                CRC32 crc = new CRC32();
+                crc.update(bytes);
+                remember(bytes, Files.readAttributes(path, BasicFileAttributes.class).fileKey(), crc.getValue());
+
+                long version = stamp[0] + 1;
+                writeStamp(channel, version);
+                return new Snapshot(version, lines, true, false);
+            }
+        }
+    }
+
+    // Запускает поток, вызывающий onChange после изменения файла.
+    // Отслеживается каталог, так как атомарное переименование заменяет сам файл.
+    Thread watch(Runnable onChange) throws IOException {
+        WatchService watchService = path.getFileSystem().newWatchService();
+        path.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        Thread watcher = new Thread(() -> {
+            try {
+                while (true) {
+                    WatchKey key = watchService.take();
+                    boolean changed = false;
+                    // Редакторы и копирование порождают серию событий - собираем их все
+                    while (key != null) {
+                        for (WatchEvent<?> event : key.pollEvents()) {
+                            changed |= event.kind() == StandardWatchEventKinds.OVERFLOW
+                                    || path.getFileName().equals(event.context());
+                        }
+                        key.reset();
+                        key = watchService.poll(WATCH_DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+                    }
+                    if (changed) {
+                        onChange.run();
+                    }
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                // Наблюдение остановлено
+            }
+        }, "users-file-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        return watcher;
+    }
+
+    // Изменения файла с версии knownVersion: ничего (штамп совпадает), дописанный хвост
+    // (других записей не было, файл тот же, стал длиннее и прежнее содержимое не изменилось)
+    // или файл целиком - при любом другом расхождении со штампом.
+    private Snapshot readChanges(long[] stamp, long knownVersion) throws IOException {
+        if (stamp[0] == knownVersion && matches(stamp)) {
+            return new Snapshot(knownVersion, null, true, false);
+        }
+        byte[] bytes;
+        Object key;
+        try {
+            key = Files.readAttributes(path, BasicFileAttributes.class).fileKey();
+            bytes = Files.readAllBytes(path);
+        } catch (NoSuchFileException e) {
+            syncedSize = -1;
+            return new Snapshot(stamp[0], new ArrayList<>(), false, false);
+        }
+        // Сверка прежнего содержимого по CRC32 - без разбора строк
+        CRC32 crc = new CRC32();
+        boolean appended = stamp[0] == knownVersion && syncedSize > 0 && syncedLineEnd
+                && bytes.length > syncedSize && Objects.equals(key, syncedKey);
+        if (appended) {
+            crc.update(bytes, 0, (int) syncedSize);
+            appended = crc.getValue() == syncedCrc;
+        }
+        int from = appended ? (int) syncedSize : 0;
+        if (!appended) {
+            crc.reset();
+        }
+        crc.update(bytes, from, bytes.length - from);
+        remember(bytes, key, crc.getValue());
+        return new Snapshot(stamp[0], lines(bytes, from, bytes.length), true, appended);
+    }
+
+    private static List<String> lines(byte[] bytes, int from, int to) {
+        String text = new String(bytes, from, to - from, Charset.defaultCharset());
+        List<String> lines = new ArrayList<>();
+        for (String line : text.split("\r?\n")) {
+            if (!line.isEmpty()) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    private void remember(byte[] bytes, Object key, long crc) {
+        syncedSize = bytes.length;
+        syncedKey = key;
+        syncedCrc = crc;
+        syncedLineEnd = bytes.length > 0 && bytes[bytes.length - 1] == '\n';
+    }
+
+    private FileChannel openLock() throws IOException {
+        return FileChannel.open(lockPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    // Штамп: {версия, время изменения файла, размер файла}. Пустой файл-спутник - версия 0.
+    private static long[] readStamp(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(channel.size(), 256));
+        channel.read(buffer, 0);
+        String[] parts = new String(buffer.array(), 0, buffer.position(), StandardCharsets.US_ASCII).trim().split(" ");
+        long[] stamp = {0, -1, -1};
+        try {
+            for (int i = 0; i < stamp.length && i < parts.length; i++) {
+                stamp[i] = Long.parseLong(parts[i]);
+            }
+        } catch (NumberFormatException e) {
+            return new long[] {0, -1, -1};
+        }
+        return stamp;
+    }
+
+    private void writeStamp(FileChannel channel, long version) throws IOException {
+        String stamp = version + " " + Files.getLastModifiedTime(path).toMillis() + " " + Files.size(path) + "\n";
+        channel.truncate(0);
+        channel.write(ByteBuffer.wrap(stamp.getBytes(StandardCharsets.US_ASCII)), 0);
+    }
+
+    // Совпадает ли штамп с атрибутами файла (т.е. не правили ли его в обход блокировки).
+    private boolean matches(long[] stamp) throws IOException {
+        try {
+            return Files.getLastModifiedTime(path).toMillis() == stamp[1] && Files.size(path) == stamp[2];
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+}
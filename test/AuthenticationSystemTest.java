@@ -0,0 +1,133 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Тесты слияния файла пользователей, изменяемого несколькими процессами.
+class AuthenticationSystemTest {
+
+    private static Map<String, String> records(String... lines) {
+        Map<String, String> map = new LinkedHashMap<>();
+        for (String line : lines) {
+            map.put(line.substring(0, line.indexOf(',')), line);
+        }
+        return map;
+    }
+
+    @Test
+    void mergesDifferentFieldsOfSameUser() {
+        // Другой процесс сменил пароль, этот (с устаревшими данными) заблокировал пользователя
+        Map<String, String> base = records("admin,admin1111,false,false");
+        Map<String, String> ours = records("admin,admin1111,true,false");
+        List<String> theirs = List.of("admin,new,false,false");
+
+        assertEquals(List.of("admin,new,true,false"), AuthenticationSystem.merge(base, ours, theirs));
+    }
+
+    @Test
+    void keepsOursWhenSameFieldChangedOnBothSides() {
+        assertEquals("bob,mine,false,true",
+                AuthenticationSystem.mergeRecord("bob,old,false,false", "bob,mine,false,false", "bob,theirs,false,true"));
+    }
+
+    @Test
+    void mergesChangesOfDifferentUsers() {
+        Map<String, String> base = records("admin,a,false,false", "bob,b,false,false");
+        Map<String, String> ours = records("admin,a,false,false", "bob,b,true,false");
+        List<String> theirs = List.of("admin,changed,false,false", "bob,b,false,false");
+
+        assertEquals(List.of("admin,changed,false,false", "bob,b,true,false"), AuthenticationSystem.merge(base, ours, theirs));
+    }
+
+    @Test
+    void keepsAdditionsOfBothSides() {
+        Map<String, String> base = records("admin,a,false,false");
+        Map<String, String> ours = records("admin,a,false,false", "ours,1,false,false");
+        List<String> theirs = List.of("admin,a,false,false", "theirs,2,false,false");
+
+        assertEquals(List.of("admin,a,false,false", "theirs,2,false,false", "ours,1,false,false"),
+                AuthenticationSystem.merge(base, ours, theirs));
+    }
+
+    @Test
+    void dropsUsersDeletedOnEitherSide() {
+        Map<String, String> base = records("admin,a,false,false", "bob,b,false,false", "eve,e,false,false");
+        Map<String, String> ours = records("admin,a,false,false", "eve,e,false,false"); // bob удален здесь
+        List<String> theirs = List.of("admin,a,false,false", "bob,b,false,false"); // eve удалена там
+
+        assertEquals(List.of("admin,a,false,false"), AuthenticationSystem.merge(base, ours, theirs));
+    }
+
+    @Test
+    void staleInstanceKeepsOtherInstanceChanges(@TempDir Path dir) {
+        String dataFile = dir.resolve("users.txt").toString();
+        AuthenticationSystem first = new AuthenticationSystem(dataFile);
+        AuthenticationSystem second = new AuthenticationSystem(dataFile);
+
+        second.findUser("admin").setPassword("new");
+        second.saveUsers();
+        first.findUser("admin").setBlocked(true);
+        first.saveUsers();
+
+        User admin = first.findUser("admin");
+        assertEquals("new", admin.getPassword());
+        assertTrue(admin.isBlocked());
+        User saved = new AuthenticationSystem(dataFile).findUser("admin");
+        assertEquals("new", saved.getPassword());
+        assertTrue(saved.isBlocked());
+    }
+
+    @Test
+    void reloadsLinesAppendedOutsideTheLock(@TempDir Path dir) throws IOException {
+        Path path = dir.resolve("users.txt");
+        AuthenticationSystem system = new AuthenticationSystem(path.toString());
+        Files.writeString(path, "bob,secret,false,false" + System.lineSeparator(), StandardOpenOption.APPEND);
+
+        system.reloadUsers();
+
+        User bob = system.findUser("bob");
+        assertNotNull(bob);
+        assertEquals("secret", bob.getPassword());
+        assertNotNull(system.findUser("admin"));
+    }
+
+    @Test
+    void readingDoesNotCreateLockFile(@TempDir Path dir) throws IOException {
+        Path path = dir.resolve("users.txt");
+        Files.writeString(path, "admin,admin1111,false,false" + System.lineSeparator());
+
+        AuthenticationSystem system = new AuthenticationSystem(path.toString(), false);
+        system.reloadUsers();
+
+        assertNotNull(system.findUser("admin"));
+        try (var files = Files.list(dir)) {
+            assertEquals(List.of(path), files.toList());
+        }
+    }
+
+    @Test
+    void reloadsSameSizeEditInPlace(@TempDir Path dir) throws IOException {
+        Path path = dir.resolve("users.txt");
+        String separator = System.lineSeparator();
+        Files.writeString(path, "admin,admin1111,false,false" + separator + "user1,aaaa1111,false,false" + separator);
+        AuthenticationSystem system = new AuthenticationSystem(path.toString());
+        // Правка на месте без изменения размера, как в текстовом редакторе
+        Files.writeString(path, "admin,admin1111,false,false" + separator + "user1,bbbb2222,false,false" + separator);
+
+        system.reloadUsers();
+        assertEquals("bbbb2222", system.findUser("user1").getPassword());
+
+        system.saveUsers();
+        assertTrue(Files.readString(path).contains("user1,bbbb2222,false,false"));
+    }
+}